@@ -0,0 +1,291 @@
+package saga;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Representacao do armazem de compras de um fornecedor. As compras sao
+ * guardadas em colunas, uma linha por compra: o preco e a data em vetores de
+ * tipos primitivos, e o cliente e o produto como codigos de dicionarios. Uma
+ * compra so e materializada como {@link saga.Compra} quando for pedida, e ainda
+ * assim como uma visao de sua linha no armazem.
+ *
+ * As datas sao guardadas como dias epoca, conforme {@link saga.Data}.
+ *
+ * As linhas das compras quitadas sao liberadas quando as compras sao movidas
+ * para o {@link saga.HistoricoPagamentos} do fornecedor, e sao reutilizadas
+ * pelas proximas compras adicionadas. Assim, o armazem cresce apenas com as
+ * compras em aberto. Os dicionarios crescem apenas com os clientes e produtos
+ * distintos, nunca com a quantidade de compras.
+ *
+ * @author Pedro Henrique
+ */
+public class ArmazemCompras {
+
+	/**
+	 * Capacidade inicial das colunas do armazem.
+	 */
+	private static final int CAPACIDADE_INICIAL = 16;
+
+	/**
+	 * Armazena o nome do fornecedor dono de todas as compras do armazem.
+	 */
+	private String fornecedor;
+
+	/**
+	 * Armazena o preco, em centavos, de cada compra.
+	 */
+	private long[] precos;
+
+	/**
+	 * Armazena a data de cada compra, como dia epoca.
+	 */
+	private int[] datas;
+
+	/**
+	 * Armazena o codigo do cliente de cada compra.
+	 */
+	private int[] clientes;
+
+	/**
+	 * Armazena o codigo do produto de cada compra.
+	 */
+	private int[] produtos;
+
+	/**
+	 * Armazena a quantidade de linhas do armazem, incluindo as liberadas.
+	 */
+	private int tamanho;
+
+	/**
+	 * Armazena as linhas liberadas, que serao reutilizadas pelas proximas compras.
+	 */
+	private int[] livres;
+
+	/**
+	 * Armazena a quantidade de linhas liberadas.
+	 */
+	private int quantidadeLivres;
+
+	/**
+	 * Dicionario dos nomes dos clientes que realizaram compras.
+	 */
+	private Dicionario<String> dicionarioClientes;
+
+	/**
+	 * Dicionario dos produtos que foram comprados.
+	 */
+	private Dicionario<IdProduto> dicionarioProdutos;
+
+	/**
+	 * Constroi um armazem vazio para as compras de um fornecedor.
+	 *
+	 * @param fornecedor e o nome do fornecedor.
+	 */
+	public ArmazemCompras(String fornecedor) {
+		this.fornecedor = fornecedor;
+		this.precos = new long[CAPACIDADE_INICIAL];
+		this.datas = new int[CAPACIDADE_INICIAL];
+		this.clientes = new int[CAPACIDADE_INICIAL];
+		this.produtos = new int[CAPACIDADE_INICIAL];
+		this.livres = new int[CAPACIDADE_INICIAL];
+		this.dicionarioClientes = new Dicionario<>();
+		this.dicionarioProdutos = new Dicionario<>();
+	}
+
+	/**
+	 * Adiciona uma compra ao armazem, em uma linha liberada caso exista alguma.
+	 *
+	 * @param data    e a data da compra, como dia epoca.
+	 * @param produto e o id do produto comprado.
+	 * @param cliente e o nome do cliente.
+	 * @param preco   e o preco da compra em centavos.
+	 * @return e retornado a linha da compra no armazem.
+	 */
+	public int adicionaCompra(int data, IdProduto produto, String cliente, long preco) {
+		if (this.quantidadeLivres > 0) {
+			int linha = this.livres[--this.quantidadeLivres];
+			preencheLinha(linha, data, produto, cliente, preco);
+			return linha;
+		}
+		if (this.tamanho == this.precos.length) {
+			int capacidade = this.tamanho * 2;
+			this.precos = Arrays.copyOf(this.precos, capacidade);
+			this.datas = Arrays.copyOf(this.datas, capacidade);
+			this.clientes = Arrays.copyOf(this.clientes, capacidade);
+			this.produtos = Arrays.copyOf(this.produtos, capacidade);
+		}
+		preencheLinha(this.tamanho, data, produto, cliente, preco);
+		return this.tamanho++;
+	}
+
+	/**
+	 * Guarda os dados de uma compra em uma linha do armazem.
+	 *
+	 * @param linha   e a linha da compra.
+	 * @param data    e a data da compra, como dia epoca.
+	 * @param produto e o id do produto comprado.
+	 * @param cliente e o nome do cliente.
+	 * @param preco   e o preco da compra em centavos.
+	 */
+	private void preencheLinha(int linha, int data, IdProduto produto, String cliente, long preco) {
+		this.precos[linha] = preco;
+		this.datas[linha] = data;
+		this.clientes[linha] = this.dicionarioClientes.codifica(cliente);
+		this.produtos[linha] = this.dicionarioProdutos.codifica(produto);
+	}
+
+	/**
+	 * Libera a linha de uma compra que saiu do armazem, para que seja reutilizada
+	 * pela proxima compra adicionada. Os dados da linha continuam legiveis ate que
+	 * ela seja reutilizada.
+	 *
+	 * @param linha e a linha da compra.
+	 */
+	public void libera(int linha) {
+		if (this.quantidadeLivres == this.livres.length)
+			this.livres = Arrays.copyOf(this.livres, this.quantidadeLivres * 2);
+		this.livres[this.quantidadeLivres++] = linha;
+	}
+
+	/**
+	 * Retorna a visao da compra de uma linha do armazem.
+	 *
+	 * @param linha e a linha da compra.
+	 * @return e retornado a compra da linha.
+	 */
+	public Compra getCompra(int linha) {
+		return new Compra(this, linha);
+	}
+
+	public String getFornecedor() {
+		return this.fornecedor;
+	}
+
+	public int getTamanho() {
+		return this.tamanho;
+	}
+
+	public int getQuantidadeLivres() {
+		return this.quantidadeLivres;
+	}
+
+	public long getPreco(int linha) {
+		return this.precos[linha];
+	}
+
+	public int getData(int linha) {
+		return this.datas[linha];
+	}
+
+	public String getCliente(int linha) {
+		return this.dicionarioClientes.decodifica(this.clientes[linha]);
+	}
+
+	public IdProduto getProduto(int linha) {
+		return this.dicionarioProdutos.decodifica(this.produtos[linha]);
+	}
+
+	/**
+	 * Escreve a representacao da compra de uma linha do armazem, no formato "NOME
+	 * - DD-MM-AAAA", sem materializar a compra.
+	 *
+	 * @param destino e onde a compra sera escrita.
+	 * @param linha   e a linha da compra.
+	 */
+	public void escreveCompra(StringBuilder destino, int linha) {
+		destino.append(getProduto(linha).getNome()).append(" - ");
+		Data.escreve(destino, this.datas[linha]);
+	}
+
+	/**
+	 * Soma os precos, em centavos, de um conjunto de linhas do armazem.
+	 *
+	 * @param linhas     e o vetor de linhas.
+	 * @param quantidade e a quantidade de linhas validas do vetor.
+	 * @return e retornado a soma dos precos das linhas.
+	 */
+	public long somaPrecos(int[] linhas, int quantidade) {
+		long soma = 0;
+		for (int i = 0; i < quantidade; i++)
+			soma += this.precos[linhas[i]];
+		return soma;
+	}
+
+	/**
+	 * Escreve o armazem na imagem do sistema, uma coluna por vez, seguido dos
+	 * dicionarios de clientes e de produtos e das linhas liberadas.
+	 *
+	 * @param saida e a saida da imagem.
+	 * @throws IOException caso a saida nao possa ser escrita.
+	 */
+	void escreve(DataOutputStream saida) throws IOException {
+		saida.writeInt(this.tamanho);
+		for (int i = 0; i < this.tamanho; i++)
+			saida.writeLong(this.precos[i]);
+		for (int i = 0; i < this.tamanho; i++)
+			saida.writeInt(this.datas[i]);
+		for (int i = 0; i < this.tamanho; i++)
+			saida.writeInt(this.clientes[i]);
+		for (int i = 0; i < this.tamanho; i++)
+			saida.writeInt(this.produtos[i]);
+
+		saida.writeInt(this.dicionarioClientes.tamanho());
+		for (int i = 0; i < this.dicionarioClientes.tamanho(); i++)
+			ImagemSistema.escreveTexto(saida, this.dicionarioClientes.decodifica(i));
+		saida.writeInt(this.dicionarioProdutos.tamanho());
+		for (int i = 0; i < this.dicionarioProdutos.tamanho(); i++) {
+			IdProduto produto = this.dicionarioProdutos.decodifica(i);
+			ImagemSistema.escreveTexto(saida, produto.getNome());
+			ImagemSistema.escreveTexto(saida, produto.getDescricao());
+		}
+		saida.writeInt(this.quantidadeLivres);
+		for (int i = 0; i < this.quantidadeLivres; i++)
+			saida.writeInt(this.livres[i]);
+	}
+
+	/**
+	 * Le o armazem da imagem do sistema. Cada coluna e copiada de uma vez para o
+	 * seu vetor. O armazem deve estar vazio.
+	 *
+	 * @param entrada e a entrada da imagem.
+	 */
+	void le(ByteBuffer entrada) {
+		int quantidade = entrada.getInt();
+		int capacidade = Math.max(quantidade, CAPACIDADE_INICIAL);
+		this.precos = new long[capacidade];
+		entrada.asLongBuffer().get(this.precos, 0, quantidade);
+		entrada.position(entrada.position() + quantidade * 8);
+		this.datas = leColuna(entrada, capacidade, quantidade);
+		this.clientes = leColuna(entrada, capacidade, quantidade);
+		this.produtos = leColuna(entrada, capacidade, quantidade);
+		this.tamanho = quantidade;
+
+		int quantidadeClientes = entrada.getInt();
+		for (int i = 0; i < quantidadeClientes; i++)
+			this.dicionarioClientes.codifica(ImagemSistema.leTexto(entrada));
+		int quantidadeProdutos = entrada.getInt();
+		for (int i = 0; i < quantidadeProdutos; i++)
+			this.dicionarioProdutos
+					.codifica(new IdProduto(ImagemSistema.leTexto(entrada), ImagemSistema.leTexto(entrada)));
+		this.quantidadeLivres = entrada.getInt();
+		this.livres = leColuna(entrada, Math.max(this.quantidadeLivres, CAPACIDADE_INICIAL), this.quantidadeLivres);
+	}
+
+	/**
+	 * Le uma coluna de inteiros da imagem do sistema.
+	 *
+	 * @param entrada    e a entrada da imagem.
+	 * @param capacidade e a capacidade do vetor da coluna.
+	 * @param quantidade e a quantidade de valores da coluna.
+	 * @return e retornado o vetor da coluna.
+	 */
+	private static int[] leColuna(ByteBuffer entrada, int capacidade, int quantidade) {
+		int[] coluna = new int[capacidade];
+		entrada.asIntBuffer().get(coluna, 0, quantidade);
+		entrada.position(entrada.position() + quantidade * 4);
+		return coluna;
+	}
+}
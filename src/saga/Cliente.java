@@ -1,5 +1,9 @@
 package saga;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
 /**
  * Representacao do Cliente no sistema. Todo cliente possui um cpf
  * (identificador unico), nome, email e um local onde ele frenquenta
@@ -97,6 +101,34 @@ public class Cliente implements Comparable<Cliente> {
 		return this.nome;
 	}
 
+	public String getCpf() {
+		return this.cpf;
+	}
+
+	/**
+	 * Escreve o cliente na imagem do sistema.
+	 * 
+	 * @param saida e a saida da imagem.
+	 * @throws IOException caso a saida nao possa ser escrita.
+	 */
+	void escreve(DataOutputStream saida) throws IOException {
+		ImagemSistema.escreveTexto(saida, this.cpf);
+		ImagemSistema.escreveTexto(saida, this.nome);
+		ImagemSistema.escreveTexto(saida, this.email);
+		ImagemSistema.escreveTexto(saida, this.localizacao);
+	}
+
+	/**
+	 * Le um cliente da imagem do sistema.
+	 * 
+	 * @param entrada e a entrada da imagem.
+	 * @return e retornado o cliente lido.
+	 */
+	static Cliente le(ByteBuffer entrada) {
+		return new Cliente(ImagemSistema.leTexto(entrada), ImagemSistema.leTexto(entrada),
+				ImagemSistema.leTexto(entrada), ImagemSistema.leTexto(entrada));
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -3,84 +3,83 @@ package saga;
 /**
  * Representacao de uma Compra. Cada compra possui uma data, o nome e descricao
  * do produto que o compoem, o nome do cliente, o nome do fornecedor e o preco.
- * 
+ *
+ * A compra e uma visao de uma linha do {@link saga.ArmazemCompras} do
+ * fornecedor, seus atributos sao lidos do armazem quando pedidos.
+ *
  * @author Pedro Henrique
  */
 public class Compra {
 
 	/**
-	 * Armazena a data da compra.
+	 * Armazena o armazem onde a compra esta guardada.
 	 */
-	private String data;
+	private ArmazemCompras armazem;
 
 	/**
-	 * Armazena o nome do produto.
+	 * Armazena a linha da compra no armazem.
 	 */
-	private String nome;
+	private int linha;
 
 	/**
-	 * Armazena a descricao do produto.
+	 * Constroi a visao de uma compra a partir do armazem e da linha da compra.
+	 *
+	 * @param armazem e o armazem onde a compra esta guardada.
+	 * @param linha   e a linha da compra no armazem.
 	 */
-	private String descricao;
-
-	/**
-	 * Armazena o preco da compra.
-	 */
-	private double preco;
-
-	/**
-	 * Armazena o nome do cliente.
-	 */
-	private String cliente;
-
-	/**
-	 * Armazena o nome do fornecedor.
-	 */
-	private String fornecedor;
+	public Compra(ArmazemCompras armazem, int linha) {
+		this.armazem = armazem;
+		this.linha = linha;
+	}
 
-	/**
-	 * Constroi uma compra atribuindo incializando todos os atributos com os
-	 * parametros.
-	 * 
-	 * @param data       e a data da compra.
-	 * @param nome       e o nome do produto.
-	 * @param descricao  e a descricao do produto.
-	 * @param preco      e o valor da compra.
-	 * @param cliente    e o nome do cliente.
-	 * @param fornecedor e o nome do fornecedor.
-	 */
-	public Compra(String data, String nome, String descricao, double preco, String cliente, String fornecedor) {
-		this.data = data;
-		this.nome = nome;
-		this.descricao = descricao;
-		this.preco = preco;
-		this.cliente = cliente;
-		this.fornecedor = fornecedor;
+	public int getLinha() {
+		return this.linha;
 	}
 
 	public String getFornecedor() {
-		return this.fornecedor;
+		return this.armazem.getFornecedor();
+	}
+
+	public String getNome() {
+		return this.armazem.getProduto(this.linha).getNome();
 	}
 
 	public String getDescricao() {
-		return this.descricao;
+		return this.armazem.getProduto(this.linha).getDescricao();
 	}
 
+	/**
+	 * Retorna a data da compra no formato DD-MM-AAAA, com dois digitos no dia e no
+	 * mes, independente de como a data foi recebida.
+	 *
+	 * @return e retornado a data da compra.
+	 */
 	public String getData() {
-		return this.data;
+		return Data.formata(this.armazem.getData(this.linha));
+	}
+
+	/**
+	 * Retorna a data da compra como dia epoca.
+	 *
+	 * @return e retornado o dia epoca da data da compra.
+	 */
+	public int getDiaEpoca() {
+		return this.armazem.getData(this.linha);
 	}
 
 	public String getCliente() {
-		return this.cliente;
+		return this.armazem.getCliente(this.linha);
 	}
 
-	public double getPreco() {
-		return this.preco;
+	public long getPreco() {
+		return this.armazem.getPreco(this.linha);
 	}
 
 	@Override
 	public String toString() {
-		return nome + " - " + data;
+		StringBuilder resultado = new StringBuilder();
+		this.armazem.escreveCompra(resultado, this.linha);
+		return resultado.toString();
 	}
 
 }
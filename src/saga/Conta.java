@@ -1,55 +1,99 @@
 package saga;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.Locale;
+import java.util.Arrays;
 
 /**
  * Representacao de um Conta. Toda conta possui um o dono da conta (cliente), a
- * quem a conta e referente (fornecedor) e um conjunto de compras.
+ * quem a conta e referente (fornecedor) e um conjunto de compras. As compras
+ * ficam guardadas no armazem de compras do fornecedor, a conta guarda apenas as
+ * linhas de suas compras no armazem.
+ * 
+ * Os pagamentos quitam as compras da mais antiga para a mais recente. As
+ * compras quitadas formam um prefixo do vetor de linhas, marcado apenas pela
+ * quantidade de compras quitadas, e o valor pago que ainda nao quita a proxima
+ * compra e guardado a parte.
  * 
  * @author Pedro Henrique
  */
 public class Conta {
 
 	/**
-	 * Armazena uma lista de compras.
+	 * Armazena o armazem de compras do fornecedor.
 	 */
-	private ArrayList<Compra> compras;
+	private ArmazemCompras armazem;
 
 	/**
-	 * Armazena o cliente dono da conta.
+	 * Armazena as linhas do armazem que correspondem as compras da conta.
 	 */
-	private String cliente;
+	private int[] linhas;
+
+	/**
+	 * Armazena a quantidade de compras da conta.
+	 */
+	private int quantidade;
+
+	/**
+	 * Armazena a quantidade de compras, do inicio do vetor de linhas, ja quitadas.
+	 */
+	private int quitadas;
+
+	/**
+	 * Armazena a quantidade de compras quitadas ja descartadas do inicio do vetor
+	 * de linhas. Somada a posicao de uma compra no vetor, da a posicao da compra
+	 * na conta, que nao muda com os pagamentos.
+	 */
+	private int descartadas;
 
 	/**
-	 * Armazena o fornecedor.
+	 * Armazena o valor, em centavos, ja pago da primeira compra ainda nao
+	 * quitada.
 	 */
-	private String fornecedor;
+	private long pagoParcial;
 
 	/**
-	 * Constroi uma conta a partir do nome do cliente e do fornecedor.
+	 * Armazena o debito em aberto, em centavos, da conta. E atualizado a cada
+	 * compra adicionada e a cada pagamento.
+	 */
+	private long debito;
+
+	/**
+	 * Armazena o cliente dono da conta.
+	 */
+	private String cliente;
+
+	/**
+	 * Constroi uma conta a partir do nome do cliente e do armazem de compras do
+	 * fornecedor.
 	 * 
-	 * @param cliente    e o nome do cliente.
-	 * @param fornecedor e o nome do fornecedor.
+	 * @param cliente e o nome do cliente.
+	 * @param armazem e o armazem de compras do fornecedor.
 	 */
-	public Conta(String cliente, String fornecedor) {
-		this.compras = new ArrayList<>();
+	public Conta(String cliente, ArmazemCompras armazem) {
+		this.armazem = armazem;
+		this.linhas = new int[4];
 		this.cliente = cliente;
-		this.fornecedor = fornecedor;
 	}
 
 	/**
-	 * Adiciona uma compra na lista de compras. Uma compra possui uma data, o nome e
-	 * descricao do produto, uma descricao e um preco.
+	 * Adiciona uma compra ao armazem e a guarda na conta. Uma compra possui uma
+	 * data, o produto comprado e um preco.
 	 * 
-	 * @param data      e a data da compra.
-	 * @param nome      e o nome do produto.
-	 * @param descricao e a descricao do produto.
-	 * @param preco     e o preco do produto.
+	 * @param data    e a data da compra, como dia epoca.
+	 * @param produto e o id do produto.
+	 * @param preco   e o preco do produto em centavos.
+	 * @return e retornado a compra adicionada.
 	 */
-	public void adicionaCompra(String data, String nome, String descricao, double preco) {
-		this.compras.add(new Compra(data, nome, descricao, preco, this.cliente, this.fornecedor));
+	public Compra adicionaCompra(int data, IdProduto produto, long preco) {
+		if (this.quantidade == this.linhas.length)
+			this.linhas = Arrays.copyOf(this.linhas, this.quantidade * 2);
+		int linha = this.armazem.adicionaCompra(data, produto, this.cliente, preco);
+		this.linhas[this.quantidade++] = linha;
+		this.debito += preco;
+		return this.armazem.getCompra(linha);
 	}
 
 	public String getCliente() {
@@ -57,8 +101,8 @@ public class Conta {
 	}
 
 	/**
-	 * Recupera o debito que o cliente possui com o fornecedor, ao somar seu debito
-	 * de todas as compras.
+	 * Recupera o debito que o cliente possui com o fornecedor, ou seja, a soma de
+	 * todas as compras da conta.
 	 * 
 	 * Caso o debito seja nulo sera lancado um IllegalArgumentException: "Erro ao
 	 * recuperar debito: cliente nao tem debito com fornecedor."
@@ -66,43 +110,170 @@ public class Conta {
 	 * @return e retornado o debito que o cliente possui com o fornecedor.
 	 */
 	public String getDebito() {
-		double debito = 0;
-		for (Compra c : compras) {
-			debito += c.getPreco();
-		}
-		if (debito == 0)
+		if (this.debito == 0)
 			throw new IllegalArgumentException("Erro ao recuperar debito: cliente nao tem debito com fornecedor.");
-		return String.format(Locale.ENGLISH, "%.2f", debito);
+		return Dinheiro.formata(this.debito, '.');
+	}
+
+	/**
+	 * Retorna o debito da conta em centavos.
+	 * 
+	 * @return e retornado o debito da conta em centavos.
+	 */
+	public long getDebitoCentavos() {
+		return this.debito;
+	}
+
+	/**
+	 * Arquiva as compras em aberto e o debito desta conta em um historico de
+	 * pagamentos, como o pagamento de todo o debito.
+	 * 
+	 * @param historico e o historico de pagamentos do fornecedor.
+	 * @param cpf       e o cpf do cliente dono da conta.
+	 */
+	public void arquiva(HistoricoPagamentos historico, String cpf) {
+		historico.arquiva(cpf, this.linhas, this.quitadas, this.quantidade - this.quitadas, this.debito);
 	}
 
 	/**
-	 * Retorna a exibicao de todas as compras desta conta. Separando os elementos
-	 * com " | ".
+	 * Paga parte do debito da conta. O valor e aplicado as compras em aberto, da
+	 * mais antiga para a mais recente, e as compras que ele terminar de quitar sao
+	 * arquivadas no historico de pagamentos junto com o valor pago. O valor deve
+	 * ser positivo e menor que o debito da conta.
+	 * 
+	 * @param valor     e o valor pago em centavos.
+	 * @param historico e o historico de pagamentos do fornecedor.
+	 * @param cpf       e o cpf do cliente dono da conta.
+	 * @return e retornado a lista das compras quitadas pelo pagamento.
+	 */
+	public ArrayList<Compra> paga(long valor, HistoricoPagamentos historico, String cpf) {
+		long disponivel = this.pagoParcial + valor;
+		int inicio = this.quitadas;
+		while (this.quitadas < this.quantidade) {
+			long preco = this.armazem.getPreco(this.linhas[this.quitadas]);
+			if (disponivel < preco)
+				break;
+			disponivel -= preco;
+			this.quitadas++;
+		}
+		this.pagoParcial = disponivel;
+		this.debito -= valor;
+		historico.arquiva(cpf, this.linhas, inicio, this.quitadas - inicio, valor);
+		ArrayList<Compra> compras = new ArrayList<>(this.quitadas - inicio);
+		for (int i = inicio; i < this.quitadas; i++)
+			compras.add(this.armazem.getCompra(this.linhas[i]));
+		compacta();
+		return compras;
+	}
+
+	/**
+	 * Descarta do vetor de linhas as compras quitadas, quando elas forem a maior
+	 * parte do vetor.
+	 */
+	private void compacta() {
+		if (this.quitadas < 16 || this.quitadas * 2 < this.quantidade)
+			return;
+		this.quantidade -= this.quitadas;
+		System.arraycopy(this.linhas, this.quitadas, this.linhas, 0, this.quantidade);
+		this.descartadas += this.quitadas;
+		this.quitadas = 0;
+	}
+
+	/**
+	 * Quita a conta, descartando todas as suas compras e zerando o debito.
+	 */
+	public void quita() {
+		this.quantidade = 0;
+		this.quitadas = 0;
+		this.pagoParcial = 0;
+		this.debito = 0;
+	}
+
+	/**
+	 * Retorna a exibicao de todas as compras em aberto desta conta. Separando os
+	 * elementos com " | ".
 	 * 
 	 * @return e retornado a representacao toString de todas as compras.
 	 */
 	public String exibeContas() {
-		String resultado = "";
-		Iterator<Compra> it = compras.iterator();
-		while (it.hasNext()) {
-			Compra elemento = it.next();
-			if (it.hasNext()) {
-				resultado += elemento.toString() + " | ";
-			} else {
-				resultado += elemento.toString();
-			}
+		StringBuilder resultado = new StringBuilder();
+		exibeCompras(resultado, 0, Integer.MAX_VALUE);
+		return resultado.toString();
+	}
+
+	/**
+	 * Escreve uma pagina das compras em aberto desta conta em um destino,
+	 * separando os elementos com " | ". A pagina comeca na compra da posicao
+	 * inicio, ou na primeira compra em aberto caso a compra da posicao ja tenha
+	 * sido quitada, e possui no maximo tamanhoPagina compras.
+	 * 
+	 * As posicoes contam todas as compras da conta, desde a primeira, inclusive as
+	 * quitadas. Assim, o valor retornado, a posicao da proxima compra que deve ser
+	 * usada como inicio da pagina seguinte, continua valido apos um pagamento. E
+	 * retornado -1 caso nao existam mais compras a exibir.
+	 * 
+	 * @param destino       e onde as compras serao escritas.
+	 * @param inicio        e a posicao da primeira compra da pagina.
+	 * @param tamanhoPagina e a quantidade maxima de compras da pagina.
+	 * @return e retornado a posicao da proxima compra ou -1.
+	 */
+	public int exibeCompras(StringBuilder destino, int inicio, int tamanhoPagina) {
+		int primeira = Math.max(inicio - this.descartadas, this.quitadas);
+		int fim = (int) Math.min((long) primeira + tamanhoPagina, this.quantidade);
+		for (int i = primeira; i < fim; i++) {
+			if (i > primeira)
+				destino.append(" | ");
+			this.armazem.escreveCompra(destino, this.linhas[i]);
 		}
-		return resultado;
+		return fim < this.quantidade ? this.descartadas + fim : -1;
+	}
+
+	/**
+	 * Escreve a conta na imagem do sistema: o cliente, a quantidade de compras
+	 * quitadas, as linhas de suas compras em aberto no armazem, o debito e o valor
+	 * ja pago da primeira compra em aberto.
+	 * 
+	 * @param saida e a saida da imagem.
+	 * @throws IOException caso a saida nao possa ser escrita.
+	 */
+	void escreve(DataOutputStream saida) throws IOException {
+		ImagemSistema.escreveTexto(saida, this.cliente);
+		saida.writeInt(this.descartadas + this.quitadas);
+		saida.writeInt(this.quantidade - this.quitadas);
+		for (int i = this.quitadas; i < this.quantidade; i++)
+			saida.writeInt(this.linhas[i]);
+		saida.writeLong(this.debito);
+		saida.writeLong(this.pagoParcial);
+	}
+
+	/**
+	 * Le uma conta da imagem do sistema.
+	 * 
+	 * @param entrada e a entrada da imagem.
+	 * @param armazem e o armazem de compras do fornecedor.
+	 * @return e retornado a conta lida.
+	 */
+	static Conta le(ByteBuffer entrada, ArmazemCompras armazem) {
+		Conta conta = new Conta(ImagemSistema.leTexto(entrada), armazem);
+		conta.descartadas = entrada.getInt();
+		conta.quantidade = entrada.getInt();
+		conta.linhas = new int[Math.max(conta.quantidade, 4)];
+		entrada.asIntBuffer().get(conta.linhas, 0, conta.quantidade);
+		entrada.position(entrada.position() + conta.quantidade * 4);
+		conta.debito = entrada.getLong();
+		conta.pagoParcial = entrada.getLong();
+		return conta;
 	}
 
 	/**
-	 * Retorna a lista de compras.
+	 * Retorna a lista de compras em aberto.
 	 * 
-	 * @return e retornado todas as compras desta conta.
+	 * @return e retornado todas as compras em aberto desta conta.
 	 */
 	public ArrayList<Compra> retornaCompras() {
-		ArrayList<Compra> compras = new ArrayList<>();
-		compras = this.compras;
+		ArrayList<Compra> compras = new ArrayList<>(this.quantidade - this.quitadas);
+		for (int i = this.quitadas; i < this.quantidade; i++)
+			compras.add(this.armazem.getCompra(this.linhas[i]));
 		return compras;
 	}
 }
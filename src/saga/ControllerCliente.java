@@ -1,5 +1,8 @@
 package saga;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -216,4 +219,30 @@ public class ControllerCliente {
 	public String getNomeCliente(String cpf) {
 		return clientes.get(cpf).getNome();
 	}
+
+	/**
+	 * Escreve todos os clientes na imagem do sistema.
+	 * 
+	 * @param saida e a saida da imagem.
+	 * @throws IOException caso a saida nao possa ser escrita.
+	 */
+	void escreve(DataOutputStream saida) throws IOException {
+		saida.writeInt(this.clientes.size());
+		for (Cliente cliente : this.clientes.values())
+			cliente.escreve(saida);
+	}
+
+	/**
+	 * Le os clientes da imagem do sistema, substituindo os atuais.
+	 * 
+	 * @param entrada e a entrada da imagem.
+	 */
+	void le(ByteBuffer entrada) {
+		this.clientes.clear();
+		int quantidade = entrada.getInt();
+		for (int i = 0; i < quantidade; i++) {
+			Cliente cliente = Cliente.le(entrada);
+			this.clientes.put(cliente.getCpf(), cliente);
+		}
+	}
 }
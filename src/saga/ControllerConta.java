@@ -1,6 +1,11 @@
 package saga;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
 import java.util.HashMap;
 
 /**
@@ -21,6 +26,22 @@ public class ControllerConta {
 	 */
 	private HashMap<String, Conta> contasCliente;
 
+	/**
+	 * Armazena as compras de todas as contas deste fornecedor.
+	 */
+	private ArmazemCompras armazem;
+
+	/**
+	 * Armazena o historico das contas ja pagas deste fornecedor.
+	 */
+	private HistoricoPagamentos historico;
+
+	/**
+	 * Armazena a soma, em centavos, do debito em aberto de todas as contas deste
+	 * fornecedor.
+	 */
+	private long debitoTotal;
+
 	/**
 	 * Controi o controlador com o nome do fornecedor e controi as contas dos
 	 * clientes.
@@ -30,6 +51,8 @@ public class ControllerConta {
 	public ControllerConta(String fornecedor) {
 		this.fornecedor = fornecedor;
 		this.contasCliente = new HashMap<>();
+		this.armazem = new ArmazemCompras(fornecedor);
+		this.historico = new HistoricoPagamentos(this.armazem);
 	}
 
 	/**
@@ -53,7 +76,7 @@ public class ControllerConta {
 	 * @param cliente e o nome do cliente.
 	 */
 	private void criaConta(String cpf, String cliente) {
-		this.contasCliente.put(cpf, new Conta(cliente, this.fornecedor));
+		this.contasCliente.put(cpf, new Conta(cliente, this.armazem));
 	}
 
 	/**
@@ -61,18 +84,20 @@ public class ControllerConta {
 	 * possua conta, ela sera criada. A compra possui uma data, um nome, uma
 	 * descricao e um preco.
 	 * 
-	 * @param cpf       e o cpf do cliente.
-	 * @param data      e a data da compra.
-	 * @param nome      e o nome do produto.
-	 * @param descricao e o nome do produto.
-	 * @param cliente   e o nome do cleinte.
-	 * @param preco     e o valor do produto.
+	 * @param cpf     e o cpf do cliente.
+	 * @param data    e a data da compra, como dia epoca.
+	 * @param produto e o id do produto.
+	 * @param cliente e o nome do cleinte.
+	 * @param preco   e o valor do produto em centavos.
+	 * @return e retornado a compra adicionada.
 	 */
-	public void adicionaCompra(String cpf, String data, String nome, String descricao, String cliente, double preco) {
+	public Compra adicionaCompra(String cpf, int data, IdProduto produto, String cliente, long preco) {
 		if (!existeConta(cpf))
 			criaConta(cpf, cliente);
 
-		this.contasCliente.get(cpf).adicionaCompra(data, nome, descricao, preco);
+		Compra compra = this.contasCliente.get(cpf).adicionaCompra(data, produto, preco);
+		this.debitoTotal += preco;
+		return compra;
 	}
 
 	/**
@@ -99,6 +124,25 @@ public class ControllerConta {
 		return this.contasCliente.get(cpf).getDebito();
 	}
 
+	/**
+	 * Retorna os cpfs dos clientes que possuem conta com este fornecedor.
+	 * 
+	 * @return e retornado a colecao de cpfs dos clientes com conta.
+	 */
+	public Collection<String> getCpfs() {
+		return this.contasCliente.keySet();
+	}
+
+	/**
+	 * Retorna o debito em aberto de todos os clientes com este fornecedor, no
+	 * formato X.XX.
+	 * 
+	 * @return e retornado o debito total do fornecedor.
+	 */
+	public String getDebitoTotal() {
+		return Dinheiro.formata(this.debitoTotal, '.');
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -135,20 +179,143 @@ public class ControllerConta {
 	}
 
 	/**
-	 * Paga todo o debito das contas do usuario ao remover suas contas.
+	 * Escreve uma pagina das compras da conta do cpf especificado em um destino.
+	 * {@link saga.Conta#exibeCompras(StringBuilder, int, int)}
+	 * 
+	 * @param cpf           e cpf do cliente.
+	 * @param destino       e onde as compras serao escritas.
+	 * @param inicio        e a posicao da primeira compra da pagina.
+	 * @param tamanhoPagina e a quantidade maxima de compras da pagina.
+	 * @return e retornado a posicao da proxima compra ou -1.
+	 */
+	public int exibeCompras(String cpf, StringBuilder destino, int inicio, int tamanhoPagina) {
+		return this.contasCliente.get(cpf).exibeCompras(destino, inicio, tamanhoPagina);
+	}
+
+	/**
+	 * Retorna um boolean indicando se determinado cliente ja pagou alguma conta.
+	 * 
+	 * @param cpf e o cpf do cliente.
+	 * @return e retornado true caso o cliente possua pagamento, caso contrario,
+	 *         false.
+	 */
+	public boolean possuiPagamento(String cpf) {
+		return this.historico.possuiPagamento(cpf);
+	}
+
+	/**
+	 * Exibe todas as compras ja pagas pelo cliente do cpf especificado, na ordem em
+	 * que foram pagas, separadas por " | ".
+	 * 
+	 * @param cpf     e o cpf do cliente.
+	 * @param destino e onde as compras serao escritas.
+	 */
+	public void exibeHistorico(String cpf, StringBuilder destino) {
+		this.historico.exibeHistorico(cpf, destino);
+	}
+
+	/**
+	 * Paga todo o debito das contas do usuario ao remover suas contas. A conta e
+	 * arquivada no historico de pagamentos, deixando as contas em aberto.
 	 * 
 	 * Caso o cpf nao remeta a nenhuma conta sera lancado um
 	 * IllegalArgumentException: "Erro no pagamento de conta: nao ha debito do
 	 * cliente associado a este fornecedor."
 	 * 
 	 * @param cpf e o cpf do cliente.
+	 * @return e retornado a lista das compras quitadas pelo pagamento.
 	 */
-	public void realizaPagamento(String cpf) {
+	public ArrayList<Compra> realizaPagamento(String cpf) {
 		if (!existeConta(cpf))
 			throw new IllegalArgumentException(
 					"Erro no pagamento de conta: nao ha debito do cliente associado a este fornecedor.");
 
-		this.contasCliente.remove(cpf);
+		Conta conta = this.contasCliente.remove(cpf);
+		ArrayList<Compra> compras = conta.retornaCompras();
+		this.debitoTotal -= conta.getDebitoCentavos();
+		conta.arquiva(this.historico, cpf);
+		conta.quita();
+		return compras;
+	}
+
+	/**
+	 * Paga parte do debito da conta de um cliente, quitando suas compras da mais
+	 * antiga para a mais recente. Caso o valor pague todo o debito, a conta e paga
+	 * como em {@link saga.ControllerConta#realizaPagamento(String)}. O debito
+	 * total do fornecedor e atualizado sem percorrer as contas.
+	 * 
+	 * Caso o cpf nao remeta a nenhuma conta sera lancado um
+	 * IllegalArgumentException: "Erro no pagamento de conta: nao ha debito do
+	 * cliente associado a este fornecedor." Caso o valor seja maior que o debito
+	 * sera lancado um IllegalArgumentException: "Erro no pagamento de conta: valor
+	 * maior que o debito."
+	 * 
+	 * @param cpf   e o cpf do cliente.
+	 * @param valor e o valor pago em centavos.
+	 * @return e retornado a lista das compras quitadas pelo pagamento.
+	 */
+	public ArrayList<Compra> realizaPagamento(String cpf, long valor) {
+		if (!existeConta(cpf))
+			throw new IllegalArgumentException(
+					"Erro no pagamento de conta: nao ha debito do cliente associado a este fornecedor.");
+		Conta conta = this.contasCliente.get(cpf);
+		if (valor > conta.getDebitoCentavos())
+			throw new IllegalArgumentException("Erro no pagamento de conta: valor maior que o debito.");
+
+		if (valor == conta.getDebitoCentavos())
+			return realizaPagamento(cpf);
+		this.debitoTotal -= valor;
+		return conta.paga(valor, this.historico, cpf);
+	}
+
+	/**
+	 * Escreve o armazem de compras, as contas e o historico de pagamentos deste
+	 * fornecedor na imagem do sistema.
+	 * 
+	 * @param saida e a saida da imagem.
+	 * @throws IOException caso a saida nao possa ser escrita.
+	 */
+	void escreve(DataOutputStream saida) throws IOException {
+		this.armazem.escreve(saida);
+		saida.writeInt(this.contasCliente.size());
+		for (Map.Entry<String, Conta> conta : this.contasCliente.entrySet()) {
+			ImagemSistema.escreveTexto(saida, conta.getKey());
+			conta.getValue().escreve(saida);
+		}
+		this.historico.escreve(saida);
+	}
+
+	/**
+	 * Le o armazem de compras, as contas e o historico de pagamentos deste
+	 * fornecedor da imagem do sistema. O debito total e recalculado a partir das
+	 * contas lidas. O controlador deve estar vazio.
+	 * 
+	 * @param entrada e a entrada da imagem.
+	 */
+	void le(ByteBuffer entrada) {
+		this.armazem.le(entrada);
+		int quantidade = entrada.getInt();
+		for (int i = 0; i < quantidade; i++) {
+			String cpf = ImagemSistema.leTexto(entrada);
+			Conta conta = Conta.le(entrada, this.armazem);
+			this.contasCliente.put(cpf, conta);
+			this.debitoTotal += conta.getDebitoCentavos();
+		}
+		this.historico.le(entrada);
+	}
+
+	/**
+	 * Retorna as compras em aberto da conta de um cliente.
+	 * 
+	 * @param cpf e o cpf do cliente.
+	 * @return e retornado a lista das compras em aberto do cliente, vazia caso ele
+	 *         nao possua conta.
+	 */
+	public ArrayList<Compra> retornaCompras(String cpf) {
+		Conta conta = this.contasCliente.get(cpf);
+		if (conta == null)
+			return new ArrayList<>();
+		return conta.retornaCompras();
 	}
 
 	/**
@@ -1,9 +1,17 @@
 package saga;
 
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
 
 /**
  * Representacao do controlador de fornecedores do sistema. Este controlador
@@ -20,16 +28,64 @@ public class ControllerFornecedor {
 	 */
 	private Criterio criterio;
 
+	/**
+	 * Armazena o nome do criterio de ordenacao atual, como recebido em ordenaPor.
+	 */
+	private String nomeCriterio;
+
 	/**
 	 * Armazena no mapa de fornecedores o nome do Fornecedor, Fornecedor.
 	 */
 	private HashMap<String, Fornecedor> fornecedores;
 
 	/**
-	 * Constroi os mapas de fornecedores.
+	 * Armazena os mesmos fornecedores do mapa fornecedores, mantidos em ordem
+	 * alfabetica pelo nome.
+	 */
+	private TreeSet<Fornecedor> fornecedoresOrdenados;
+
+	/**
+	 * Indice que mapeia cada produto do sistema aos fornecedores que o vendem.
+	 */
+	private IndiceProdutos indiceProdutos;
+
+	/**
+	 * Indice que mantem as compras em aberto do sistema ordenadas por cada
+	 * criterio de listagem.
+	 */
+	private IndiceCompras indiceCompras;
+
+	/**
+	 * Armazena no mapa de contas o cpf do cliente, conjunto dos fornecedores onde o
+	 * cliente possui conta. Os fornecedores de cada cliente sao mantidos em ordem
+	 * alfabetica.
+	 */
+	private HashMap<String, TreeSet<Fornecedor>> contasPorCliente;
+
+	/**
+	 * Registro de operacoes onde sao anotados os produtos importados. E nulo quando
+	 * o sistema nao e persistido.
+	 */
+	private RegistroOperacoes registro;
+
+	/**
+	 * Constroi os mapas de fornecedores e o indice de produtos.
 	 */
 	public ControllerFornecedor() {
 		this.fornecedores = new HashMap<>();
+		this.fornecedoresOrdenados = new TreeSet<>();
+		this.indiceProdutos = new IndiceProdutos();
+		this.indiceCompras = new IndiceCompras();
+		this.contasPorCliente = new HashMap<>();
+	}
+
+	/**
+	 * Define o registro de operacoes onde serao anotados os produtos importados.
+	 * 
+	 * @param registro e o registro de operacoes do sistema.
+	 */
+	public void setRegistro(RegistroOperacoes registro) {
+		this.registro = registro;
 	}
 
 	/**
@@ -76,7 +132,9 @@ public class ControllerFornecedor {
 			throw new IllegalArgumentException("Erro no cadastro do fornecedor: telefone nao pode ser vazio ou nulo.");
 
 		if (!this.existeFornecedor(nome)) {
-			this.fornecedores.put(nome, new Fornecedor(nome, email, telefone));
+			Fornecedor novoFornecedor = new Fornecedor(nome, email, telefone);
+			this.fornecedores.put(nome, novoFornecedor);
+			this.fornecedoresOrdenados.add(novoFornecedor);
 			return nome;
 		}
 		throw new IllegalArgumentException("Erro no cadastro de fornecedor: fornecedor ja existe.");
@@ -113,25 +171,15 @@ public class ControllerFornecedor {
 	 * @return retorna a representacao toString de todos os fornecedores do sistema.
 	 */
 	public String exibeFornecedores() {
-		String resultado = "";
-		if (!fornecedores.isEmpty()) {
-
-			ArrayList<Fornecedor> valores = new ArrayList<>();
-			for (Fornecedor f : fornecedores.values())
-				valores.add(f);
-			Collections.sort(valores);
-
-			Iterator<Fornecedor> it = valores.iterator();
-			while (it.hasNext()) {
-				Fornecedor elemento = it.next();
-				if (it.hasNext()) {
-					resultado += elemento.toString() + " | ";
-				} else {
-					resultado += elemento.toString();
-				}
-			}
+		StringBuilder resultado = new StringBuilder();
+		Iterator<Fornecedor> it = fornecedoresOrdenados.iterator();
+		while (it.hasNext()) {
+			Fornecedor elemento = it.next();
+			resultado.append(elemento.toString());
+			if (it.hasNext())
+				resultado.append(" | ");
 		}
-		return resultado;
+		return resultado.toString();
 	}
 
 	/**
@@ -203,7 +251,43 @@ public class ControllerFornecedor {
 		if (!existeFornecedor(nome)) {
 			throw new IllegalArgumentException("Erro na remocao do fornecedor: fornecedor nao existe.");
 		}
-		fornecedores.remove(nome);
+		Fornecedor removido = fornecedores.remove(nome);
+		fornecedoresOrdenados.remove(removido);
+		for (Produto p : removido.getProdutos())
+			indiceProdutos.removeProduto(nome, p.getId());
+		for (String cpf : removido.getCpfsComConta())
+			removeConta(cpf, removido);
+		indiceCompras.removeCompras(removido.retornaCompras());
+	}
+
+	/**
+	 * Registra no mapa de contas que um cliente possui conta em um fornecedor.
+	 * 
+	 * @param cpf        e o cpf do cliente.
+	 * @param fornecedor e o fornecedor onde o cliente possui conta.
+	 */
+	private void adicionaConta(String cpf, Fornecedor fornecedor) {
+		TreeSet<Fornecedor> fornecedoresComConta = this.contasPorCliente.get(cpf);
+		if (fornecedoresComConta == null) {
+			fornecedoresComConta = new TreeSet<>();
+			this.contasPorCliente.put(cpf, fornecedoresComConta);
+		}
+		fornecedoresComConta.add(fornecedor);
+	}
+
+	/**
+	 * Remove do mapa de contas a conta de um cliente em um fornecedor.
+	 * 
+	 * @param cpf        e o cpf do cliente.
+	 * @param fornecedor e o fornecedor onde o cliente possuia conta.
+	 */
+	private void removeConta(String cpf, Fornecedor fornecedor) {
+		TreeSet<Fornecedor> fornecedoresComConta = this.contasPorCliente.get(cpf);
+		if (fornecedoresComConta == null)
+			return;
+		fornecedoresComConta.remove(fornecedor);
+		if (fornecedoresComConta.isEmpty())
+			this.contasPorCliente.remove(cpf);
 	}
 
 	/**
@@ -234,27 +318,79 @@ public class ControllerFornecedor {
 	 * NOME1 - DESCRICAO1 - R$X,XX | FORNECEDOR1 - NOME2 - DESCRICAO2 - R$Y,YY
 	 * FORNECEDORX - NOMEX - DESCRICAOX - R$Z,ZZ
 	 * 
+	 * Fornecedores e produtos ja estao ordenados, entao a listagem e linear no
+	 * numero de produtos do sistema.
+	 * 
 	 * @return retorna todos os produtos de todos os fornecedores.
 	 */
 	public String exibeProdutos() {
-		String resultado = "";
-		if (!fornecedores.isEmpty()) {
-			ArrayList<Fornecedor> valores = new ArrayList<>();
-			for (Fornecedor f : fornecedores.values())
-				valores.add(f);
-			Collections.sort(valores);
-
-			Iterator<Fornecedor> it = valores.iterator();
-			while (it.hasNext()) {
-				Fornecedor elemento = it.next();
-				if (it.hasNext()) {
-					resultado += elemento.listarProdutos() + " | ";
-				} else {
-					resultado += elemento.listarProdutos();
-				}
-			}
+		StringBuilder resultado = new StringBuilder();
+		Iterator<Fornecedor> it = fornecedoresOrdenados.iterator();
+		while (it.hasNext()) {
+			Fornecedor elemento = it.next();
+			resultado.append(elemento.listarProdutos());
+			if (it.hasNext())
+				resultado.append(" | ");
 		}
-		return resultado;
+		return resultado.toString();
+	}
+
+	/**
+	 * Lista todos os fornecedores que vendem um produto, em ordem alfabetica, no
+	 * formato: FORNECEDOR1 - NOME - DESCRICAO - R$X,XX | FORNECEDOR2 - NOME -
+	 * DESCRICAO - R$Y,YY. A consulta e feita no indice de produtos, sem percorrer
+	 * os fornecedores.
+	 * 
+	 * Caso o nome seja vazio ou nulo sera lancado um IllegalArgumentException:
+	 * "Erro na exibicao de produto: nome nao pode ser vazio ou nulo." Caso a
+	 * descricao seja vazia ou nula sera lancado um IllegalArgumentException: "Erro
+	 * na exibicao de produto: descricao nao pode ser vazia ou nula." Caso nenhum
+	 * fornecedor venda o produto sera lancado um IllegalArgumentException: "Erro na
+	 * exibicao de produto: produto nao existe."
+	 * 
+	 * @param nome      e o nome do produto.
+	 * @param descricao e a descricao do produto.
+	 * @return e retornado a representacao do produto em cada fornecedor que o
+	 *         vende.
+	 */
+	public String exibeFornecedoresProduto(String nome, String descricao) {
+		if (nome == null || nome.equals(""))
+			throw new IllegalArgumentException("Erro na exibicao de produto: nome nao pode ser vazio ou nulo.");
+		if (descricao == null || descricao.equals(""))
+			throw new IllegalArgumentException("Erro na exibicao de produto: descricao nao pode ser vazia ou nula.");
+		IdProduto id = new IdProduto(nome, descricao);
+		if (!indiceProdutos.existeProduto(id))
+			throw new IllegalArgumentException("Erro na exibicao de produto: produto nao existe.");
+
+		return indiceProdutos.listaFornecedores(id);
+	}
+
+	/**
+	 * Busca produtos de todos os fornecedores pelos termos de seus nomes e
+	 * descricoes. Cada termo da consulta e tratado como um prefixo e os produtos
+	 * que satisfazem mais termos aparecem primeiro. O resultado esta no formato:
+	 * FORNECEDOR1 - NOME1 - DESCRICAO1 - R$X,XX | FORNECEDOR2 - NOME2 - DESCRICAO2
+	 * - R$Y,YY
+	 * 
+	 * Caso a consulta seja vazia ou nula sera lancado um IllegalArgumentException:
+	 * "Erro na busca de produtos: consulta nao pode ser vazia ou nula."
+	 * 
+	 * @param consulta e o texto da busca.
+	 * @return e retornado a representacao dos produtos encontrados, ou uma String
+	 *         vazia caso nenhum produto seja encontrado.
+	 */
+	public String buscaProdutos(String consulta) {
+		if (consulta == null || consulta.trim().equals(""))
+			throw new IllegalArgumentException("Erro na busca de produtos: consulta nao pode ser vazia ou nula.");
+
+		StringBuilder resultado = new StringBuilder();
+		Iterator<OfertaProduto> it = indiceProdutos.busca(consulta).iterator();
+		while (it.hasNext()) {
+			resultado.append(it.next().toString());
+			if (it.hasNext())
+				resultado.append(" | ");
+		}
+		return resultado.toString();
 	}
 
 	/**
@@ -277,7 +413,8 @@ public class ControllerFornecedor {
 		if (!existeFornecedor(fornecedor))
 			throw new IllegalArgumentException("Erro no cadastro de produto: fornecedor nao existe.");
 
-		this.fornecedores.get(fornecedor).adicionaProduto(nome, descricao, preco);
+		Produto produto = this.fornecedores.get(fornecedor).adicionaProduto(nome, descricao, preco);
+		this.indiceProdutos.adicionaProduto(fornecedor, produto);
 	}
 
 	/**
@@ -352,6 +489,7 @@ public class ControllerFornecedor {
 			throw new IllegalArgumentException("Erro na remocao de produto: fornecedor nao existe.");
 
 		this.fornecedores.get(fornecedor).removeProduto(nome, descricao);
+		this.indiceProdutos.removeProduto(fornecedor, new IdProduto(nome, descricao));
 	}
 
 	/**
@@ -378,7 +516,9 @@ public class ControllerFornecedor {
 		if (!existeFornecedor(fornecedor))
 			throw new IllegalArgumentException("Erro ao cadastrar compra: fornecedor nao existe.");
 
-		this.fornecedores.get(fornecedor).adicionaCompra(cpf, data, nome, descricao, cliente);
+		Fornecedor f = this.fornecedores.get(fornecedor);
+		indiceCompras.adicionaCompra(f.adicionaCompra(cpf, data, nome, descricao, cliente));
+		adicionaConta(cpf, f);
 	}
 
 	/**
@@ -403,7 +543,164 @@ public class ControllerFornecedor {
 		if (!existeFornecedor(fornecedor))
 			throw new IllegalArgumentException("Erro no cadastro de combo: fornecedor nao existe.");
 
-		this.fornecedores.get(fornecedor).adicionaCombo(nome, descricao, fator, produtos);
+		Produto combo = this.fornecedores.get(fornecedor).adicionaCombo(nome, descricao, fator, produtos);
+		this.indiceProdutos.adicionaProduto(fornecedor, combo);
+	}
+
+	/**
+	 * Cadastra um combo em determinado fornecedor a partir dos ids dos produtos ja
+	 * recuperados do fornecedor, evitando a leitura e a busca de cada componente
+	 * por nome e descricao.
+	 * 
+	 * Caso o fornecedor seja vazio ou nulo sera lancado um
+	 * IllegalArgumentException: "Erro no cadastro de combo: fornecedor nao pode ser
+	 * vazio ou nulo." Caso o fornecedor nao exista sera lancado um
+	 * IllegalArgumentException: "Erro no cadastro de combo: fornecedor nao existe."
+	 * 
+	 * @param fornecedor  e o fornecedor que tera o combo cadastrado.
+	 * @param nome        e o nome do combo que sera cadastrado.
+	 * @param descricao   e a descricao do combo que sera cadastrado.
+	 * @param fator       e o fator que representa o desconto do combo.
+	 * @param componentes e a lista de ids dos produtos do fornecedor que formam o
+	 *                    combo.
+	 */
+	public void adicionaCombo(String fornecedor, String nome, String descricao, double fator,
+			ArrayList<IdProduto> componentes) {
+		if (fornecedor == null || fornecedor.equals(""))
+			throw new IllegalArgumentException("Erro no cadastro de combo: fornecedor nao pode ser vazio ou nulo.");
+		if (!existeFornecedor(fornecedor))
+			throw new IllegalArgumentException("Erro no cadastro de combo: fornecedor nao existe.");
+
+		Produto combo = this.fornecedores.get(fornecedor).adicionaCombo(nome, descricao, fator, componentes);
+		this.indiceProdutos.adicionaProduto(fornecedor, combo);
+	}
+
+	/**
+	 * Recupera o id canonico de um produto de um fornecedor a partir do nome e
+	 * descricao do produto. O id identifica o produto sem permitir altera-lo e
+	 * pode ser usado para compor combos do mesmo fornecedor.
+	 * 
+	 * Caso o fornecedor seja vazio ou nulo sera lancado um
+	 * IllegalArgumentException: "Erro na recuperacao de produto: fornecedor nao
+	 * pode ser vazio ou nulo." Caso o fornecedor nao exista sera lancado um
+	 * IllegalArgumentException: "Erro na recuperacao de produto: fornecedor nao
+	 * existe." Caso o produto nao exista sera lancado um IllegalArgumentException:
+	 * "Erro na recuperacao de produto: produto nao existe."
+	 * 
+	 * @param fornecedor e o nome do fornecedor.
+	 * @param nome       e o nome do produto.
+	 * @param descricao  e a descricao do produto.
+	 * @return e retornado o id do produto do fornecedor.
+	 */
+	public IdProduto recuperaIdProduto(String fornecedor, String nome, String descricao) {
+		if (fornecedor == null || fornecedor.equals(""))
+			throw new IllegalArgumentException("Erro na recuperacao de produto: fornecedor nao pode ser vazio ou nulo.");
+		if (!existeFornecedor(fornecedor))
+			throw new IllegalArgumentException("Erro na recuperacao de produto: fornecedor nao existe.");
+		IdProduto id = this.fornecedores.get(fornecedor).recuperaIdProduto(nome, descricao);
+		if (id == null)
+			throw new IllegalArgumentException("Erro na recuperacao de produto: produto nao existe.");
+		return id;
+	}
+
+	/**
+	 * Importa os produtos e combos de um fornecedor a partir de um arquivo. O
+	 * arquivo e lido linha a linha e cada linha cadastra um produto ou um combo,
+	 * nos formatos:
+	 * 
+	 * produto;NOME;DESCRICAO;PRECO
+	 * 
+	 * combo;NOME;DESCRICAO;FATOR;NOME1 - DESCRICAO1, NOME2 - DESCRICAO2
+	 * 
+	 * Linhas vazias ou iniciadas por "#" sao ignoradas. O fornecedor e validado uma
+	 * unica vez para todo o arquivo. Uma linha invalida nao interrompe a
+	 * importacao, o erro e registrado no relatorio retornado, no formato: X
+	 * produtos importados | Linha N: MENSAGEM | Linha M: MENSAGEM
+	 * 
+	 * Caso o fornecedor seja vazio ou nulo sera lancado um
+	 * IllegalArgumentException: "Erro na importacao de produtos: fornecedor nao
+	 * pode ser vazio ou nulo." Caso o fornecedor nao exista sera lancado um
+	 * IllegalArgumentException: "Erro na importacao de produtos: fornecedor nao
+	 * existe." Caso o caminho seja vazio ou nulo sera lancado um
+	 * IllegalArgumentException: "Erro na importacao de produtos: caminho nao pode
+	 * ser vazio ou nulo." Caso o arquivo nao possa ser lido sera lancado um
+	 * IllegalArgumentException: "Erro na importacao de produtos: arquivo nao pode
+	 * ser lido."
+	 * 
+	 * @param fornecedor e o nome do fornecedor que tera os produtos cadastrados.
+	 * @param caminho    e o caminho do arquivo com os produtos.
+	 * @return e retornado o relatorio da importacao.
+	 */
+	public String importaProdutos(String fornecedor, String caminho) {
+		if (fornecedor == null || fornecedor.equals(""))
+			throw new IllegalArgumentException(
+					"Erro na importacao de produtos: fornecedor nao pode ser vazio ou nulo.");
+		if (!existeFornecedor(fornecedor))
+			throw new IllegalArgumentException("Erro na importacao de produtos: fornecedor nao existe.");
+		if (caminho == null || caminho.equals(""))
+			throw new IllegalArgumentException("Erro na importacao de produtos: caminho nao pode ser vazio ou nulo.");
+
+		Fornecedor f = this.fornecedores.get(fornecedor);
+		StringBuilder erros = new StringBuilder();
+		int importados = 0;
+		try (BufferedReader leitor = new BufferedReader(new FileReader(caminho))) {
+			String linha;
+			int numeroLinha = 0;
+			while ((linha = leitor.readLine()) != null) {
+				numeroLinha++;
+				if (linha.trim().equals("") || linha.startsWith("#"))
+					continue;
+				try {
+					this.indiceProdutos.adicionaProduto(fornecedor, importaLinha(f, linha));
+					importados++;
+				} catch (IllegalArgumentException iae) {
+					erros.append(" | Linha ").append(numeroLinha).append(": ").append(iae.getMessage());
+				}
+			}
+		} catch (IOException ioe) {
+			throw new IllegalArgumentException("Erro na importacao de produtos: arquivo nao pode ser lido.");
+		}
+		return importados + " produtos importados" + erros.toString();
+	}
+
+	/**
+	 * Cadastra no fornecedor o produto ou combo descrito por uma linha do arquivo
+	 * de importacao. Caso exista um registro de operacoes, o cadastro e anotado
+	 * nele.
+	 * 
+	 * Caso a linha nao esteja em um dos formatos aceitos sera lancado um
+	 * IllegalArgumentException: "Erro na importacao de produtos: linha invalida."
+	 * Caso o preco ou o fator nao sejam numeros sera lancado um
+	 * IllegalArgumentException: "Erro na importacao de produtos: valor invalido."
+	 * 
+	 * @param f     e o fornecedor que tera o produto cadastrado.
+	 * @param linha e a linha do arquivo.
+	 * @return e retornado o produto cadastrado.
+	 */
+	private Produto importaLinha(Fornecedor f, String linha) {
+		String[] campos = linha.split(";", -1);
+		boolean produto = campos[0].equals("produto") && campos.length == 4;
+		boolean combo = campos[0].equals("combo") && campos.length == 5;
+		if (!produto && !combo)
+			throw new IllegalArgumentException("Erro na importacao de produtos: linha invalida.");
+		double valor;
+		try {
+			valor = Double.parseDouble(campos[3].trim());
+		} catch (NumberFormatException nfe) {
+			throw new IllegalArgumentException("Erro na importacao de produtos: valor invalido.");
+		}
+
+		if (produto) {
+			Produto cadastrado = f.adicionaProduto(campos[1], campos[2], valor);
+			if (this.registro != null)
+				this.registro.registra("adicionaProduto", f.getNome(), campos[1], campos[2], Double.toString(valor));
+			return cadastrado;
+		}
+		Produto cadastrado = f.adicionaCombo(campos[1], campos[2], valor, campos[4]);
+		if (this.registro != null)
+			this.registro.registra("adicionaCombo", f.getNome(), campos[1], campos[2], Double.toString(valor),
+					campos[4]);
+		return cadastrado;
 	}
 
 	/**
@@ -451,16 +748,36 @@ public class ControllerFornecedor {
 	}
 
 	/**
-	 * Lista todas as contas que um cliente possui em um fornecedor. Primeiro e
-	 * gerada uma lista com os fornecedores que possuem conta de dado cliente e
-	 * posteriormente esta lista
-	 * {@link saga.ControllerFornecedor#iteraPelasContas(String, ArrayList)}.
+	 * Retorna o debito em aberto de todos os clientes com um dado fornecedor.
+	 * 
+	 * Caso o fornecedor seja vazio ou nulo sera lancado um
+	 * IllegalArgumentException: "Erro ao recuperar debito: fornecedor nao pode ser
+	 * vazio ou nulo." Caso o fornecedor nao exista sera lancado um
+	 * IllegalArgumentException: "Erro ao recuperar debito: fornecedor nao existe."
+	 * 
+	 * @param fornecedor o nome do fornecedor.
+	 * @return e retornado o debito total do fornecedor.
+	 */
+	public String getDebitoFornecedor(String fornecedor) {
+		if (fornecedor == null || fornecedor.equals(""))
+			throw new IllegalArgumentException("Erro ao recuperar debito: fornecedor nao pode ser vazio ou nulo.");
+		if (!existeFornecedor(fornecedor))
+			throw new IllegalArgumentException("Erro ao recuperar debito: fornecedor nao existe.");
+
+		return this.fornecedores.get(fornecedor).getDebitoTotal();
+	}
+
+	/**
+	 * Lista todas as contas que um cliente possui em um fornecedor. O fornecedor e
+	 * recuperado diretamente pelo seu nome, sem percorrer os demais fornecedores.
 	 * 
 	 * Caso o fornecedor seja vazio ou nulo sera lancado um
 	 * IllegalArgumentException: "Erro ao exibir conta do cliente: fornecedor nao
 	 * pode ser vazio ou nulo." Caso o fornecedor nao exista sera lancado um
 	 * IllegalArgumentException: "Erro ao exibir conta do cliente: fornecedor nao
-	 * existe."
+	 * existe." Caso o cliente nao tenha conta com o fornecedor sera lancado um
+	 * IllegalArgumentException: "Erro ao exibir conta do cliente: cliente nao tem
+	 * nenhuma conta com o fornecedor."
 	 * 
 	 * @param cpf        e o cpf do cliente.
 	 * @param fornecedor e o nome do fornecedor.
@@ -468,32 +785,101 @@ public class ControllerFornecedor {
 	 * @return e retornada todas as contas que um cliente tem em dado fornecedor.
 	 */
 	public String exibeContas(String cpf, String fornecedor, String cliente) {
+		Fornecedor f = recuperaFornecedorComConta(cpf, fornecedor);
+		StringBuilder resultado = new StringBuilder();
+		resultado.append("Cliente: ").append(cliente).append(" | ").append(f.getNome()).append(" | ");
+		f.exibeCompras(cpf, resultado, 0, Integer.MAX_VALUE);
+		return resultado.toString();
+	}
+
+	/**
+	 * Escreve uma pagina das compras que um cliente possui em um fornecedor em um
+	 * destino, separadas por " | ". Apenas as compras sao escritas, sem o nome do
+	 * cliente e do fornecedor. O valor retornado deve ser usado como inicio da
+	 * pagina seguinte; quando for -1 todas as compras ja foram escritas.
+	 * 
+	 * Caso o fornecedor seja vazio ou nulo sera lancado um
+	 * IllegalArgumentException: "Erro ao exibir conta do cliente: fornecedor nao
+	 * pode ser vazio ou nulo." Caso o fornecedor nao exista sera lancado um
+	 * IllegalArgumentException: "Erro ao exibir conta do cliente: fornecedor nao
+	 * existe." Caso o cliente nao tenha conta com o fornecedor sera lancado um
+	 * IllegalArgumentException: "Erro ao exibir conta do cliente: cliente nao tem
+	 * nenhuma conta com o fornecedor."
+	 * 
+	 * @param cpf           e o cpf do cliente.
+	 * @param fornecedor    e o nome do fornecedor.
+	 * @param destino       e onde as compras serao escritas.
+	 * @param inicio        e a posicao da primeira compra da pagina.
+	 * @param tamanhoPagina e a quantidade maxima de compras da pagina.
+	 * @return e retornado a posicao da proxima compra ou -1.
+	 */
+	public int exibeContas(String cpf, String fornecedor, StringBuilder destino, int inicio, int tamanhoPagina) {
+		return recuperaFornecedorComConta(cpf, fornecedor).exibeCompras(cpf, destino, inicio, tamanhoPagina);
+	}
+
+	/**
+	 * Exibe todas as compras ja pagas por um cliente em um fornecedor, na ordem em
+	 * que foram pagas. As contas pagas ficam no historico de pagamentos do
+	 * fornecedor, separadas das contas em aberto.
+	 * 
+	 * Caso o fornecedor seja vazio ou nulo sera lancado um
+	 * IllegalArgumentException: "Erro ao exibir historico do cliente: fornecedor
+	 * nao pode ser vazio ou nulo." Caso o fornecedor nao exista sera lancado um
+	 * IllegalArgumentException: "Erro ao exibir historico do cliente: fornecedor
+	 * nao existe." Caso o cliente nunca tenha pago uma conta no fornecedor sera
+	 * lancado um IllegalArgumentException: "Erro ao exibir historico do cliente:
+	 * cliente nao tem nenhum pagamento com o fornecedor."
+	 * 
+	 * @param cpf        e o cpf do cliente.
+	 * @param fornecedor e o nome do fornecedor.
+	 * @param cliente    e o nome do cliente.
+	 * @return e retornado todas as compras pagas por um cliente em dado
+	 *         fornecedor.
+	 */
+	public String exibeHistorico(String cpf, String fornecedor, String cliente) {
+		if (fornecedor == null || fornecedor.equals(""))
+			throw new IllegalArgumentException(
+					"Erro ao exibir historico do cliente: fornecedor nao pode ser vazio ou nulo.");
+		if (!existeFornecedor(fornecedor))
+			throw new IllegalArgumentException("Erro ao exibir historico do cliente: fornecedor nao existe.");
+
+		Fornecedor f = this.fornecedores.get(fornecedor);
+		if (!f.possuiPagamento(cpf))
+			throw new IllegalArgumentException(
+					"Erro ao exibir historico do cliente: cliente nao tem nenhum pagamento com o fornecedor.");
+		StringBuilder resultado = new StringBuilder();
+		resultado.append("Cliente: ").append(cliente).append(" | ").append(f.getNome()).append(" | ");
+		f.exibeHistorico(cpf, resultado);
+		return resultado.toString();
+	}
+
+	/**
+	 * Recupera o fornecedor em que o cliente possui conta, para a exibicao da
+	 * conta.
+	 * 
+	 * @param cpf        e o cpf do cliente.
+	 * @param fornecedor e o nome do fornecedor.
+	 * @return e retornado o fornecedor.
+	 */
+	private Fornecedor recuperaFornecedorComConta(String cpf, String fornecedor) {
 		if (fornecedor == null || fornecedor.equals(""))
 			throw new IllegalArgumentException(
 					"Erro ao exibir conta do cliente: fornecedor nao pode ser vazio ou nulo.");
 		if (!existeFornecedor(fornecedor))
 			throw new IllegalArgumentException("Erro ao exibir conta do cliente: fornecedor nao existe.");
 
-		String resultado = "Cliente: " + cliente + " | ";
-		ArrayList<Fornecedor> fornecedoresComConta = new ArrayList<>();
-		if (!fornecedores.isEmpty()) {
-			for (Fornecedor f : fornecedores.values()) {
-				if (f.getNome().equals(fornecedor) && f.possuiConta(cpf)) {
-					fornecedoresComConta.add(f);
-				}
-			}
-			if (fornecedoresComConta.isEmpty())
-				throw new IllegalArgumentException(
-						"Erro ao exibir conta do cliente: cliente nao tem nenhuma conta com o fornecedor.");
-		}
-		return resultado + iteraPelasContas(cpf, fornecedoresComConta);
+		Fornecedor f = this.fornecedores.get(fornecedor);
+		if (!f.possuiConta(cpf))
+			throw new IllegalArgumentException(
+					"Erro ao exibir conta do cliente: cliente nao tem nenhuma conta com o fornecedor.");
+		return f;
 	}
 
 	/**
-	 * Lista todas as contas que um cliente em todos os fornecedores. Primeiro e
-	 * gerada uma lista com os fornecedores que possuem conta de dado cliente e
-	 * posteriormente esta lista
-	 * {@link saga.ControllerFornecedor#iteraPelasContas(String, ArrayList)}.
+	 * Lista todas as contas que um cliente em todos os fornecedores. Os
+	 * fornecedores que possuem conta de dado cliente sao recuperados, ja em ordem,
+	 * do mapa de contas e posteriormente
+	 * {@link saga.ControllerFornecedor#iteraPelasContas(String, Collection, StringBuilder)}.
 	 * 
 	 * @param cpf     e o cpf do cliente cujas contas sera recuperadas.
 	 * @param cliente e o nome do cliente.
@@ -501,45 +887,37 @@ public class ControllerFornecedor {
 	 *         fornecedores cadastrados do sistema.
 	 */
 	public String exibeContasClientes(String cpf, String cliente) {
-		String resultado = "Cliente: " + cliente + " | ";
-		ArrayList<Fornecedor> fornecedoresComConta = new ArrayList<>();
-		if (!fornecedores.isEmpty()) {
-			for (Fornecedor f : fornecedores.values()) {
-				if (f.possuiConta(cpf)) {
-					fornecedoresComConta.add(f);
-				}
-			}
-			if (fornecedoresComConta.isEmpty())
+		StringBuilder resultado = new StringBuilder();
+		resultado.append("Cliente: ").append(cliente).append(" | ");
+		TreeSet<Fornecedor> fornecedoresComConta = this.contasPorCliente.get(cpf);
+		if (fornecedoresComConta == null) {
+			if (!fornecedores.isEmpty())
 				throw new IllegalArgumentException("Erro ao exibir contas do cliente: cliente nao tem nenhuma conta.");
-			Collections.sort(fornecedoresComConta);
+			return resultado.toString();
 		}
-		return resultado + iteraPelasContas(cpf, fornecedoresComConta);
+		iteraPelasContas(cpf, fornecedoresComConta, resultado);
+		return resultado.toString();
 	}
 
 	/**
 	 * E iterada pela lista de fornecedores que possuem conta de determinado cliente
-	 * e e retornado a exibicao toString das contas de cada cliente, separados por "
+	 * e e escrita no destino a exibicao das contas de cada cliente, separados por "
 	 * | ".
 	 * 
 	 * @param cpf                  e o cpf do cliente cujas contas serao exibidas.
 	 * @param fornecedoresComConta e a lista de fornecedores que possuem a conta do
 	 *                             dado cliente.
-	 * @return e retornado a representacao String de todos as contas de um cliente
-	 *         da lista de fornecedores.
+	 * @param destino              e onde as contas serao escritas.
 	 */
-	private String iteraPelasContas(String cpf, ArrayList<Fornecedor> fornecedoresComConta) {
-		String resultado = "";
+	private void iteraPelasContas(String cpf, Collection<Fornecedor> fornecedoresComConta, StringBuilder destino) {
 		Iterator<Fornecedor> it = fornecedoresComConta.iterator();
 		while (it.hasNext()) {
 			Fornecedor elemento = it.next();
-			resultado += elemento.getNome() + " | ";
-			if (it.hasNext()) {
-				resultado += elemento.exibeContas(cpf) + " | ";
-			} else {
-				resultado += elemento.exibeContas(cpf);
-			}
+			destino.append(elemento.getNome()).append(" | ");
+			elemento.exibeCompras(cpf, destino, 0, Integer.MAX_VALUE);
+			if (it.hasNext())
+				destino.append(" | ");
 		}
-		return resultado;
 	}
 
 	/**
@@ -561,7 +939,35 @@ public class ControllerFornecedor {
 		if (!existeFornecedor(fornecedor))
 			throw new IllegalArgumentException("Erro no pagamento de conta: fornecedor nao existe.");
 
-		this.fornecedores.get(fornecedor).realizaPagamento(cpf);
+		Fornecedor f = this.fornecedores.get(fornecedor);
+		indiceCompras.removeCompras(f.realizaPagamento(cpf));
+		removeConta(cpf, f);
+	}
+
+	/**
+	 * Paga parte do debito de um cliente em determinado fornecedor. Caso o valor
+	 * pague todo o debito, a conta do cliente deixa de estar em aberto.
+	 * 
+	 * Caso o fornecedor seja vazio ou nulo sera lancado um
+	 * IllegalArgumentException: "Erro no pagamento de conta: fornecedor nao pode
+	 * ser vazio ou nulo." Caso o fornecedor nao exista sera lancado um
+	 * IllegalArgumentException: "Erro no pagamento de conta: fornecedor nao
+	 * existe."
+	 * 
+	 * @param cpf        e o cpf do cliente.
+	 * @param fornecedor e o fornecedor que possui a conta do cliente.
+	 * @param valor      e o valor pago em centavos.
+	 */
+	public void realizaPagamento(String cpf, String fornecedor, long valor) {
+		if (fornecedor == null || fornecedor.equals(""))
+			throw new IllegalArgumentException("Erro no pagamento de conta: fornecedor nao pode ser vazio ou nulo.");
+		if (!existeFornecedor(fornecedor))
+			throw new IllegalArgumentException("Erro no pagamento de conta: fornecedor nao existe.");
+
+		Fornecedor f = this.fornecedores.get(fornecedor);
+		indiceCompras.removeCompras(f.realizaPagamento(cpf, valor));
+		if (!f.possuiConta(cpf))
+			removeConta(cpf, f);
 	}
 
 	/**
@@ -586,25 +992,50 @@ public class ControllerFornecedor {
 		default:
 			throw new IllegalArgumentException("Erro na listagem de compras: criterio nao oferecido pelo sistema.");
 		}
+		this.nomeCriterio = criterio;
 	}
 
 	/**
-	 * Recupera todas as compras de cada fornecedor e retorna esta lista.
+	 * Escreve o criterio de ordenacao e todos os fornecedores na imagem do
+	 * sistema.
 	 * 
-	 * @return retorna a lista de todas as compras.
+	 * @param saida e a saida da imagem.
+	 * @throws IOException caso a saida nao possa ser escrita.
 	 */
-	private ArrayList<Compra> processaCompras() {
-		ArrayList<Compra> compras = new ArrayList<>();
-		for (Fornecedor f : fornecedores.values()) {
-			for (Compra compra : f.retornaCompras()) {
-				compras.add(compra);
-			}
+	void escreve(DataOutputStream saida) throws IOException {
+		ImagemSistema.escreveTexto(saida, this.nomeCriterio == null ? "" : this.nomeCriterio);
+		saida.writeInt(this.fornecedores.size());
+		for (Fornecedor fornecedor : this.fornecedores.values())
+			fornecedor.escreve(saida);
+	}
+
+	/**
+	 * Le o criterio de ordenacao e os fornecedores da imagem do sistema. Os
+	 * indices de produtos e de compras sao reconstruidos a partir dos produtos e
+	 * das contas lidas. O controlador deve estar vazio.
+	 * 
+	 * @param entrada e a entrada da imagem.
+	 */
+	void le(ByteBuffer entrada) {
+		String criterio = ImagemSistema.leTexto(entrada);
+		if (!criterio.equals(""))
+			ordenaPor(criterio);
+		int quantidade = entrada.getInt();
+		for (int i = 0; i < quantidade; i++) {
+			Fornecedor fornecedor = Fornecedor.le(entrada);
+			this.fornecedores.put(fornecedor.getNome(), fornecedor);
+			this.fornecedoresOrdenados.add(fornecedor);
+			for (Produto produto : fornecedor.getProdutos())
+				this.indiceProdutos.adicionaProduto(fornecedor.getNome(), produto);
+			for (String cpf : fornecedor.getCpfsComConta())
+				adicionaConta(cpf, fornecedor);
+			this.indiceCompras.adicionaCompras(fornecedor.retornaCompras());
 		}
-		return compras;
 	}
 
 	/**
 	 * Lista todas as compras do sistema se baseando na ordenacao atual do sistema.
+	 * As compras ja estao ordenadas no indice de compras, que e apenas percorrido.
 	 * 
 	 * Caso o criterio seja nulo sera lancada uma excecao: "Erro na listagem de
 	 * compras: criterio ainda nao definido pelo sistema."
@@ -616,9 +1047,134 @@ public class ControllerFornecedor {
 			throw new IllegalArgumentException(
 					"Erro na listagem de compras: criterio ainda nao definido pelo sistema.");
 
-		ArrayList<Compra> compras = processaCompras();
-		Collections.sort(compras, criterio);
+		return criterio.listaCompras(indiceCompras.getCompras(nomeCriterio));
+	}
+
+	/**
+	 * Lista as primeiras compras do sistema na ordenacao atual do sistema. As
+	 * compras ja estao ordenadas no indice de compras, que e percorrido apenas ate
+	 * que a quantidade pedida de compras seja atingida.
+	 * 
+	 * Caso o criterio seja nulo sera lancada uma excecao: "Erro na listagem de
+	 * compras: criterio ainda nao definido pelo sistema." Caso a quantidade nao
+	 * seja positiva sera lancada uma excecao: "Erro na listagem de compras:
+	 * quantidade invalida."
+	 * 
+	 * @param quantidade e a quantidade maxima de compras listadas.
+	 * @return e retornada a listagem das primeiras compras ordenadas.
+	 */
+	public String listarCompras(int quantidade) {
+		if (criterio == null)
+			throw new IllegalArgumentException(
+					"Erro na listagem de compras: criterio ainda nao definido pelo sistema.");
+		if (quantidade <= 0)
+			throw new IllegalArgumentException("Erro na listagem de compras: quantidade invalida.");
+
+		ArrayList<Compra> primeiras = new ArrayList<>();
+		Iterator<Compra> it = indiceCompras.getCompras(nomeCriterio).iterator();
+		while (it.hasNext() && primeiras.size() < quantidade)
+			primeiras.add(it.next());
+		return criterio.listaCompras(primeiras);
+	}
 
-		return criterio.listaCompras(compras);
+	/**
+	 * Lista uma pagina das compras em aberto que atendem aos filtros, na ordenacao
+	 * atual do sistema. Sem filtro de cliente e de fornecedor, o indice de compras
+	 * e percorrido em ordem ate que a pagina seja completada. Caso contrario,
+	 * apenas as contas do cliente e do fornecedor filtrados sao percorridas e, em
+	 * vez de ordenar todas as suas compras, sao selecionadas as deslocamento +
+	 * limite primeiras atraves de uma fila de prioridade limitada a esse tamanho,
+	 * cujo topo e a maior compra selecionada ate entao.
+	 * 
+	 * Caso o criterio seja nulo sera lancada uma excecao: "Erro na listagem de
+	 * compras: criterio ainda nao definido pelo sistema." Caso o limite nao esteja
+	 * entre 1 e {@value saga.Sistema#LIMITE_MAXIMO} ou o deslocamento nao esteja
+	 * entre 0 e {@value saga.Sistema#DESLOCAMENTO_MAXIMO} sera lancada uma
+	 * excecao: "Erro na listagem de compras: pagina invalida." Caso o fornecedor
+	 * nao exista sera lancada uma excecao: "Erro na listagem de compras:
+	 * fornecedor nao existe."
+	 * 
+	 * @param cpf          e o cpf do cliente, ou null para todos os clientes.
+	 * @param fornecedor   e o nome do fornecedor, ou null para todos os
+	 *                     fornecedores.
+	 * @param dataInicial  e o dia epoca da primeira data aceita.
+	 * @param dataFinal    e o dia epoca da ultima data aceita.
+	 * @param limite       e a quantidade maxima de compras listadas.
+	 * @param deslocamento e a quantidade de compras iniciais ignoradas.
+	 * @return e retornada a listagem da pagina de compras.
+	 */
+	public String listarCompras(String cpf, String fornecedor, int dataInicial, int dataFinal, int limite,
+			int deslocamento) {
+		if (criterio == null)
+			throw new IllegalArgumentException(
+					"Erro na listagem de compras: criterio ainda nao definido pelo sistema.");
+		if (limite <= 0 || limite > Sistema.LIMITE_MAXIMO || deslocamento < 0
+				|| deslocamento > Sistema.DESLOCAMENTO_MAXIMO)
+			throw new IllegalArgumentException("Erro na listagem de compras: pagina invalida.");
+
+		if (cpf == null && fornecedor == null)
+			return listarComprasDoIndice(dataInicial, dataFinal, limite, deslocamento);
+
+		Collection<Fornecedor> consultados;
+		if (fornecedor != null) {
+			if (!existeFornecedor(fornecedor))
+				throw new IllegalArgumentException("Erro na listagem de compras: fornecedor nao existe.");
+			consultados = new ArrayList<>();
+			consultados.add(this.fornecedores.get(fornecedor));
+		} else {
+			consultados = this.contasPorCliente.get(cpf);
+			if (consultados == null)
+				consultados = new ArrayList<>();
+		}
+
+		int selecao = (int) Math.min((long) limite + deslocamento, Integer.MAX_VALUE);
+		PriorityQueue<Compra> selecionadas = new PriorityQueue<>(11, Collections.reverseOrder(criterio));
+		for (Fornecedor f : consultados) {
+			for (Compra compra : cpf == null ? f.retornaCompras() : f.retornaCompras(cpf)) {
+				if (compra.getDiaEpoca() < dataInicial || compra.getDiaEpoca() > dataFinal)
+					continue;
+				if (selecionadas.size() < selecao) {
+					selecionadas.add(compra);
+				} else if (criterio.compare(compra, selecionadas.peek()) < 0) {
+					selecionadas.poll();
+					selecionadas.add(compra);
+				}
+			}
+		}
+
+		Compra[] ordenadas = new Compra[selecionadas.size()];
+		for (int i = ordenadas.length - 1; i >= 0; i--)
+			ordenadas[i] = selecionadas.poll();
+		ArrayList<Compra> pagina = new ArrayList<>();
+		for (int i = deslocamento; i < ordenadas.length; i++)
+			pagina.add(ordenadas[i]);
+		return criterio.listaCompras(pagina);
+	}
+
+	/**
+	 * Lista uma pagina das compras em aberto de um intervalo de datas percorrendo
+	 * o indice de compras do criterio atual, que ja esta ordenado. O percurso para
+	 * assim que deslocamento + limite compras do intervalo sao encontradas.
+	 * 
+	 * @param dataInicial  e o dia epoca da primeira data aceita.
+	 * @param dataFinal    e o dia epoca da ultima data aceita.
+	 * @param limite       e a quantidade maxima de compras listadas.
+	 * @param deslocamento e a quantidade de compras iniciais ignoradas.
+	 * @return e retornada a listagem da pagina de compras.
+	 */
+	private String listarComprasDoIndice(int dataInicial, int dataFinal, int limite, int deslocamento) {
+		ArrayList<Compra> pagina = new ArrayList<>();
+		int ignoradas = 0;
+		Iterator<Compra> it = indiceCompras.getCompras(nomeCriterio).iterator();
+		while (it.hasNext() && pagina.size() < limite) {
+			Compra compra = it.next();
+			if (compra.getDiaEpoca() < dataInicial || compra.getDiaEpoca() > dataFinal)
+				continue;
+			if (ignoradas < deslocamento)
+				ignoradas++;
+			else
+				pagina.add(compra);
+		}
+		return criterio.listaCompras(pagina);
 	}
 }
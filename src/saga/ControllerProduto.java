@@ -1,9 +1,13 @@
 package saga;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.TreeSet;
 
 /**
  * Representacao do controlador do produto, ele possui um nome de um fornecedor
@@ -24,6 +28,24 @@ public class ControllerProduto {
 	 */
 	private HashMap<IdProduto, Produto> produtos;
 
+	/**
+	 * Armazena os mesmos produtos do mapa produtos, mantidos em ordem pelo nome e
+	 * descricao. E atualizado a cada adicao e remocao de produto.
+	 */
+	private TreeSet<Produto> produtosOrdenados;
+
+	/**
+	 * Registro que entrega o id canonico de cada produto deste controlador.
+	 */
+	private RegistroIdProduto ids;
+
+	/**
+	 * Armazena no mapa de combos o IdProduto de um produto, lista dos combos que
+	 * possuem este produto. Um combo aparece uma vez para cada ocorrencia do
+	 * produto em sua lista de produtos.
+	 */
+	private HashMap<IdProduto, ArrayList<ProdutoCombo>> combosPorProduto;
+
 	/**
 	 * Constroi um contolador armazenando o nome do fornecedor que o criou no
 	 * atributo fornecedor.
@@ -32,6 +54,9 @@ public class ControllerProduto {
 	 */
 	public ControllerProduto(String nome) {
 		this.produtos = new HashMap<>();
+		this.produtosOrdenados = new TreeSet<>();
+		this.ids = new RegistroIdProduto();
+		this.combosPorProduto = new HashMap<>();
 		this.fornecedor = nome;
 	}
 
@@ -47,13 +72,35 @@ public class ControllerProduto {
 	 * @return retorna true caso o produto exista, false caso nao exista.
 	 */
 	public boolean existeProduto(String nome, String descricao) {
-		IdProduto id = new IdProduto(nome, descricao);
-		for (IdProduto chaves : produtos.keySet()) {
-			if (chaves.equals(id)) {
-				return true;
-			}
-		}
-		return false;
+		return recuperaProduto(nome, descricao) != null;
+	}
+
+	/**
+	 * Recupera um produto a partir de seu nome e descricao, utilizando o id
+	 * canonico do registro de ids. Caso o produto nao exista sera retornado null.
+	 * 
+	 * @param nome      e o nome do produto.
+	 * @param descricao e a descricao do produto.
+	 * @return e retornado o produto ou null caso ele nao exista.
+	 */
+	public Produto recuperaProduto(String nome, String descricao) {
+		IdProduto id = this.ids.recuperaId(nome, descricao);
+		if (id == null)
+			return null;
+		return this.produtos.get(id);
+	}
+
+	/**
+	 * Recupera o id canonico de um produto a partir de seu nome e descricao. O id
+	 * identifica o produto sem permitir altera-lo e pode ser usado para compor
+	 * combos deste catalogo. Caso o produto nao exista sera retornado null.
+	 * 
+	 * @param nome      e o nome do produto.
+	 * @param descricao e a descricao do produto.
+	 * @return e retornado o id do produto ou null caso ele nao exista.
+	 */
+	public IdProduto recuperaIdProduto(String nome, String descricao) {
+		return this.ids.recuperaId(nome, descricao);
 	}
 
 	/**
@@ -72,8 +119,9 @@ public class ControllerProduto {
 	 * @param nome      e o nome do produto que sera passado em sua construcao.
 	 * @param descricao e a descricao do produto que sera passado em sua construcao.
 	 * @param preco     e o preco do produto que sera passado em sua construcao.
+	 * @return e retornado o produto cadastrado.
 	 */
-	public void adicionaProduto(String nome, String descricao, double preco) {
+	public Produto adicionaProduto(String nome, String descricao, double preco) {
 		if (nome == null || nome.equals(""))
 			throw new IllegalArgumentException("Erro no cadastro de produto: nome nao pode ser vazio ou nulo.");
 		if (descricao == null || descricao.equals(""))
@@ -83,7 +131,11 @@ public class ControllerProduto {
 		if (existeProduto(nome, descricao))
 			throw new IllegalArgumentException("Erro no cadastro de produto: produto ja existe.");
 
-		this.produtos.put(new IdProduto(nome, descricao), new Produto(nome, descricao, preco));
+		IdProduto id = this.ids.registraId(nome, descricao);
+		Produto produto = new Produto(id, preco);
+		this.produtos.put(id, produto);
+		this.produtosOrdenados.add(produto);
+		return produto;
 	}
 
 	/**
@@ -108,10 +160,11 @@ public class ControllerProduto {
 			throw new IllegalArgumentException("Erro na exibicao de produto: nome nao pode ser vazio ou nulo.");
 		if (descricao == null || descricao.equals(""))
 			throw new IllegalArgumentException("Erro na exibicao de produto: descricao nao pode ser vazia ou nula.");
-		if (!existeProduto(nome, descricao))
+		Produto produto = recuperaProduto(nome, descricao);
+		if (produto == null)
 			throw new IllegalArgumentException("Erro na exibicao de produto: produto nao existe.");
 
-		return this.produtos.get(new IdProduto(nome, descricao)).toString();
+		return produto.toString();
 	}
 
 	/**
@@ -138,10 +191,26 @@ public class ControllerProduto {
 			throw new IllegalArgumentException("Erro na edicao de produto: descricao nao pode ser vazia ou nula.");
 		if (valor <= 0)
 			throw new IllegalArgumentException("Erro na edicao de produto: preco invalido.");
-		if (!existeProduto(nome, descricao))
+		Produto produto = recuperaProduto(nome, descricao);
+		if (produto == null)
 			throw new IllegalArgumentException("Erro na edicao de produto: produto nao existe.");
 
-		this.produtos.get(new IdProduto(nome, descricao)).setPreco(valor);
+		produto.setPreco(valor);
+		atualizaCombos(produto.getId());
+	}
+
+	/**
+	 * Recalcula o preco de todos os combos que possuem um determinado produto.
+	 * Apenas os combos afetados sao visitados.
+	 * 
+	 * @param id e o id do produto cujo preco foi alterado.
+	 */
+	private void atualizaCombos(IdProduto id) {
+		ArrayList<ProdutoCombo> combos = this.combosPorProduto.get(id);
+		if (combos == null)
+			return;
+		for (ProdutoCombo combo : combos)
+			combo.atualizaPreco();
 	}
 
 	/**
@@ -163,10 +232,41 @@ public class ControllerProduto {
 			throw new IllegalArgumentException("Erro na remocao de produto: nome nao pode ser vazio ou nulo.");
 		if (descricao == null || descricao.equals(""))
 			throw new IllegalArgumentException("Erro na remocao de produto: descricao nao pode ser vazia ou nula.");
-		if (!existeProduto(nome, descricao))
+		IdProduto id = this.ids.recuperaId(nome, descricao);
+		if (id == null || !this.produtos.containsKey(id))
 			throw new IllegalArgumentException("Erro na remocao de produto: produto nao existe.");
 
-		this.produtos.remove(new IdProduto(nome, descricao));
+		Produto produto = this.produtos.remove(id);
+		this.produtosOrdenados.remove(produto);
+		this.ids.removeId(nome, descricao);
+		this.combosPorProduto.remove(id);
+		if (produto instanceof ProdutoCombo)
+			removeDependencias((ProdutoCombo) produto);
+	}
+
+	/**
+	 * Remove um combo das listas de combos de cada um dos seus produtos.
+	 * 
+	 * @param combo e o combo que foi removido.
+	 */
+	private void removeDependencias(ProdutoCombo combo) {
+		for (Produto componente : combo.getComponentes()) {
+			ArrayList<ProdutoCombo> combos = this.combosPorProduto.get(componente.getId());
+			if (combos == null)
+				continue;
+			combos.remove(combo);
+			if (combos.isEmpty())
+				this.combosPorProduto.remove(componente.getId());
+		}
+	}
+
+	/**
+	 * Retorna todos os produtos deste controlador, ordenados pelo nome e descricao.
+	 * 
+	 * @return e retornado a colecao de produtos.
+	 */
+	public Collection<Produto> getProdutos() {
+		return this.produtosOrdenados;
 	}
 
 	/**
@@ -186,29 +286,24 @@ public class ControllerProduto {
 	 * FORNECEDOR - NOME1 - DESCRICAO1 - R$X,XX | FORNECEDOR - NOME2 - DESCRICAO2 -
 	 * R$Y,YY | FORNECEDOR - NOMEN - DESCRICAON - R$X,XX |
 	 * 
+	 * Os produtos ja estao ordenados, entao a listagem apenas percorre o conjunto
+	 * de produtos ordenados.
+	 * 
 	 * @return e retornado a representacao de todos os produtos no padrao acima.
 	 */
 	public String listarProdutos() {
-		String resultado = "";
-
-		ArrayList<Produto> valores = new ArrayList<>();
-		for (Produto p : produtos.values())
-			valores.add(p);
-		Collections.sort(valores);
-
-		Iterator<Produto> it = valores.iterator();
+		Iterator<Produto> it = this.produtosOrdenados.iterator();
 		if (!it.hasNext()) {
 			return this.fornecedor + " -";
 		}
+		StringBuilder resultado = new StringBuilder();
 		while (it.hasNext()) {
 			Produto elemento = it.next();
-			if (it.hasNext()) {
-				resultado += this.fornecedor + " - " + elemento.toString() + " | ";
-			} else {
-				resultado += this.fornecedor + " - " + elemento.toString();
-			}
+			resultado.append(this.fornecedor).append(" - ").append(elemento.toString());
+			if (it.hasNext())
+				resultado.append(" | ");
 		}
-		return resultado;
+		return resultado.toString();
 	}
 
 	/**
@@ -221,13 +316,11 @@ public class ControllerProduto {
 	 * @param descricao e a descricao do produto.
 	 * @return e retornado o preco do produto.
 	 */
-	public double getPrecoProduto(String nome, String descricao) {
-		for (IdProduto id : produtos.keySet()) {
-			if (id.equals(new IdProduto(nome, descricao))) {
-				return this.produtos.get(id).getPreco();
-			}
-		}
-		throw new IllegalArgumentException("Erro ao recuperar preco: produto nao existe.");
+	public long getPrecoProduto(String nome, String descricao) {
+		Produto produto = recuperaProduto(nome, descricao);
+		if (produto == null)
+			throw new IllegalArgumentException("Erro ao recuperar preco: produto nao existe.");
+		return produto.getPreco();
 	}
 
 	/**
@@ -253,19 +346,13 @@ public class ControllerProduto {
 	 * @param nome      e o nome do produto que sera passado em sua construcao.
 	 * @param descricao e a descricao do produto que sera passado em sua construcao.
 	 * @param preco     e o preco do produto que sera passado em sua construcao.
+	 * @return e retornado o combo cadastrado.
 	 */
-	public void adicionaCombo(String nome, String descricao, double fator, String produtos) {
-		if (nome == null || nome.equals(""))
-			throw new IllegalArgumentException("Erro no cadastro de combo: nome nao pode ser vazio ou nulo.");
-		if (descricao == null || descricao.equals(""))
-			throw new IllegalArgumentException("Erro no cadastro de combo: descricao nao pode ser vazia ou nula.");
-		if (fator <= 0 || fator == 1)
-			throw new IllegalArgumentException("Erro no cadastro de combo: fator invalido.");
-		if (existeProduto(nome, descricao))
-			throw new IllegalArgumentException("Erro no cadastro de combo: combo ja existe.");
+	public ProdutoCombo adicionaCombo(String nome, String descricao, double fator, String produtos) {
+		validaCombo(nome, descricao, fator);
 		if (produtos == null || produtos == "")
 			throw new IllegalArgumentException("Erro no cadastro de combo: combo deve ter produtos.");
-		double preco = 0;
+		ArrayList<Produto> componentes = new ArrayList<>();
 		String[] produtosSeparados = produtos.split(", ");
 		for (String s : produtosSeparados) {
 			String[] nomeEDescricao = s.split(" - ");
@@ -274,15 +361,188 @@ public class ControllerProduto {
 			String nomeProduto = nomeEDescricao[0];
 			String descricaoProduto = nomeEDescricao[1];
 
-			if (!existeProduto(nomeProduto, descricaoProduto))
+			Produto produto = recuperaProduto(nomeProduto, descricaoProduto);
+			if (produto == null)
 				throw new IllegalArgumentException("Erro no cadastro de combo: produto nao existe.");
-			if (this.produtos.get(new IdProduto(nomeProduto, descricaoProduto)) instanceof ProdutoCombo)
+			if (produto instanceof ProdutoCombo)
 				throw new IllegalArgumentException(
 						"Erro no cadastro de combo: um combo nao pode possuir combos na lista de produtos.");
-			preco += this.produtos.get(new IdProduto(nomeProduto, descricaoProduto)).getPreco();
+			componentes.add(produto);
 		}
 
-		this.produtos.put(new IdProduto(nome, descricao), new ProdutoCombo(nome, descricao, preco, fator, produtos));
+		return registraCombo(nome, descricao, fator, componentes);
+	}
+
+	/**
+	 * Adiciona um combo ao mapa de produtos a partir dos ids canonicos, ja
+	 * recuperados deste catalogo, dos produtos que o compoem. Os componentes sao
+	 * validados em uma unica passagem, com uma unica busca no mapa de produtos por
+	 * componente e sem nenhuma leitura de texto. Um id de outro catalogo, ou de um
+	 * produto ja removido, nao e o id canonico do produto atual e e recusado.
+	 * 
+	 * Caso o nome seja nulo ou vazio sera lancado um IllegalArgumentException:
+	 * "Erro no cadastro de combo: nome nao pode ser vazio ou nulo." Caso a
+	 * descricao seja nula ou vazia sera lancado um IllegalArgumentException: "Erro
+	 * no cadastro de combo: descricao nao pode ser vazia ou nula." Caso o fator
+	 * seja invalido sera lancado um IllegalArgumentException: "Erro no cadastro de
+	 * combo: fator invalido." Caso o combo ja exista sera lancado um
+	 * IllegalArgumentException: "Erro no cadastro de combo: combo ja existe." Caso
+	 * a lista de componentes seja vazia ou nula sera lancado um
+	 * IllegalArgumentException: "Erro no cadastro de combo: combo deve ter
+	 * produtos." Caso algum componente nao pertenca a este catalogo sera lancado
+	 * um IllegalArgumentException: "Erro no cadastro de combo: produto nao
+	 * existe." Caso algum componente seja um combo sera lancado um
+	 * IllegalArgumentException: "Erro no cadastro de combo: um combo nao pode
+	 * possuir combos na lista de produtos."
+	 * 
+	 * @param nome        e o nome do combo.
+	 * @param descricao   e a descricao do combo.
+	 * @param fator       e o fator de desconto do combo.
+	 * @param componentes e a lista de ids dos produtos que formam o combo.
+	 * @return e retornado o combo cadastrado.
+	 */
+	public ProdutoCombo adicionaCombo(String nome, String descricao, double fator,
+			ArrayList<IdProduto> componentes) {
+		validaCombo(nome, descricao, fator);
+		if (componentes == null || componentes.isEmpty())
+			throw new IllegalArgumentException("Erro no cadastro de combo: combo deve ter produtos.");
+		ArrayList<Produto> produtosCombo = new ArrayList<>(componentes.size());
+		for (IdProduto id : componentes) {
+			Produto produto = id == null ? null : this.produtos.get(id);
+			if (produto == null || produto.getId() != id)
+				throw new IllegalArgumentException("Erro no cadastro de combo: produto nao existe.");
+			if (produto instanceof ProdutoCombo)
+				throw new IllegalArgumentException(
+						"Erro no cadastro de combo: um combo nao pode possuir combos na lista de produtos.");
+			produtosCombo.add(produto);
+		}
+
+		return registraCombo(nome, descricao, fator, produtosCombo);
+	}
+
+	/**
+	 * Valida o nome, a descricao e o fator de um combo a ser cadastrado, e se ele
+	 * ainda nao existe no catalogo.
+	 * 
+	 * @param nome      e o nome do combo.
+	 * @param descricao e a descricao do combo.
+	 * @param fator     e o fator de desconto do combo.
+	 */
+	private void validaCombo(String nome, String descricao, double fator) {
+		if (nome == null || nome.equals(""))
+			throw new IllegalArgumentException("Erro no cadastro de combo: nome nao pode ser vazio ou nulo.");
+		if (descricao == null || descricao.equals(""))
+			throw new IllegalArgumentException("Erro no cadastro de combo: descricao nao pode ser vazia ou nula.");
+		if (fator <= 0 || fator == 1)
+			throw new IllegalArgumentException("Erro no cadastro de combo: fator invalido.");
+		if (existeProduto(nome, descricao))
+			throw new IllegalArgumentException("Erro no cadastro de combo: combo ja existe.");
+	}
+
+	/**
+	 * Registra no catalogo um combo ja validado, associando-o a cada um de seus
+	 * componentes que ainda estao no catalogo para que seu preco acompanhe o deles.
+	 * Um componente ja removido do catalogo mantem o preco que tinha na remocao.
+	 * 
+	 * @param nome        e o nome do combo.
+	 * @param descricao   e a descricao do combo.
+	 * @param fator       e o fator de desconto do combo.
+	 * @param componentes e a lista de produtos que formam o combo.
+	 * @return e retornado o combo cadastrado.
+	 */
+	private ProdutoCombo registraCombo(String nome, String descricao, double fator, ArrayList<Produto> componentes) {
+		IdProduto id = this.ids.registraId(nome, descricao);
+		ProdutoCombo combo = new ProdutoCombo(id, fator, componentes);
+		this.produtos.put(id, combo);
+		this.produtosOrdenados.add(combo);
+		for (Produto componente : componentes) {
+			if (this.produtos.get(componente.getId()) != componente)
+				continue;
+			ArrayList<ProdutoCombo> combos = this.combosPorProduto.get(componente.getId());
+			if (combos == null) {
+				combos = new ArrayList<>();
+				this.combosPorProduto.put(componente.getId(), combos);
+			}
+			combos.add(combo);
+		}
+		return combo;
+	}
+
+	/**
+	 * Escreve os produtos do controlador na imagem do sistema. Os produtos simples
+	 * sao escritos antes dos combos. Cada componente de um combo e escrito com seu
+	 * id, seu preco e se ainda e o produto do catalogo com esse id, ja que um
+	 * componente removido continua no combo com o preco que tinha, mesmo que um
+	 * produto de mesmo nome e descricao seja cadastrado depois.
+	 * 
+	 * @param saida e a saida da imagem.
+	 * @throws IOException caso a saida nao possa ser escrita.
+	 */
+	void escreve(DataOutputStream saida) throws IOException {
+		ArrayList<ProdutoCombo> combos = new ArrayList<>();
+		for (Produto produto : this.produtos.values()) {
+			if (produto instanceof ProdutoCombo)
+				combos.add((ProdutoCombo) produto);
+		}
+		saida.writeInt(this.produtos.size() - combos.size());
+		for (Produto produto : this.produtos.values()) {
+			if (produto instanceof ProdutoCombo)
+				continue;
+			ImagemSistema.escreveTexto(saida, produto.getId().getNome());
+			ImagemSistema.escreveTexto(saida, produto.getId().getDescricao());
+			saida.writeLong(produto.getPreco());
+		}
+		saida.writeInt(combos.size());
+		for (ProdutoCombo combo : combos) {
+			ImagemSistema.escreveTexto(saida, combo.getId().getNome());
+			ImagemSistema.escreveTexto(saida, combo.getId().getDescricao());
+			saida.writeDouble(combo.getFator());
+			saida.writeInt(combo.getComponentes().size());
+			for (Produto componente : combo.getComponentes()) {
+				ImagemSistema.escreveTexto(saida, componente.getId().getNome());
+				ImagemSistema.escreveTexto(saida, componente.getId().getDescricao());
+				saida.writeLong(componente.getPreco());
+				saida.writeBoolean(this.produtos.get(componente.getId()) == componente);
+			}
+		}
+	}
+
+	/**
+	 * Le os produtos do controlador da imagem do sistema. O controlador deve estar
+	 * vazio. Os componentes de combos que ainda estao no catalogo sao os produtos
+	 * ja lidos, e os ja removidos sao recriados fora do catalogo com o preco
+	 * escrito.
+	 * 
+	 * @param entrada e a entrada da imagem.
+	 */
+	void le(ByteBuffer entrada) {
+		int quantidade = entrada.getInt();
+		for (int i = 0; i < quantidade; i++) {
+			IdProduto id = this.ids.registraId(ImagemSistema.leTexto(entrada), ImagemSistema.leTexto(entrada));
+			Produto produto = Produto.deCentavos(id, entrada.getLong());
+			this.produtos.put(id, produto);
+			this.produtosOrdenados.add(produto);
+		}
+		int combos = entrada.getInt();
+		for (int i = 0; i < combos; i++) {
+			String nome = ImagemSistema.leTexto(entrada);
+			String descricao = ImagemSistema.leTexto(entrada);
+			double fator = entrada.getDouble();
+			int quantidadeComponentes = entrada.getInt();
+			ArrayList<Produto> componentes = new ArrayList<>(quantidadeComponentes);
+			for (int j = 0; j < quantidadeComponentes; j++) {
+				String nomeComponente = ImagemSistema.leTexto(entrada);
+				String descricaoComponente = ImagemSistema.leTexto(entrada);
+				long preco = entrada.getLong();
+				Produto componente = null;
+				if (entrada.get() != 0)
+					componente = recuperaProduto(nomeComponente, descricaoComponente);
+				if (componente == null)
+					componente = Produto.deCentavos(new IdProduto(nomeComponente, descricaoComponente), preco);
+				componentes.add(componente);
+			}
+			registraCombo(nome, descricao, fator, componentes);
+		}
 	}
 
 	/**
@@ -300,11 +560,12 @@ public class ControllerProduto {
 	 * @param fator     e o fator de desconto do combo.
 	 */
 	public void editaCombo(String nome, String descricao, double fator) {
-		if (!existeProduto(nome, descricao))
+		Produto produto = recuperaProduto(nome, descricao);
+		if (produto == null)
 			throw new IllegalArgumentException("Erro na edicao de combo: produto nao existe.");
 		if (fator <= 0 || fator == 1)
 			throw new IllegalArgumentException("Erro na edicao de combo: fator invalido.");
-		ProdutoCombo combo = (ProdutoCombo) this.produtos.get(new IdProduto(nome, descricao));
+		ProdutoCombo combo = (ProdutoCombo) produto;
 		combo.editaCombo(fator);
 	}
 }
@@ -1,6 +1,6 @@
 package saga;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 
 /**
@@ -16,10 +16,10 @@ public interface Criterio extends Comparator<Compra> {
 	public int compare(Compra o1, Compra o2);
 
 	/**
-	 * Lista todas as compras.
+	 * Lista todas as compras, na ordem em que sao percorridas.
 	 * 
-	 * @param compras e a lista de todas as compras.
+	 * @param compras e a colecao de todas as compras, ja ordenada.
 	 * @return e retornado uma lista com as compras ordenadas.
 	 */
-	public String listaCompras(ArrayList<Compra> compras);
+	public String listaCompras(Collection<Compra> compras);
 }
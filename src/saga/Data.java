@@ -0,0 +1,209 @@
+package saga;
+
+import java.util.Calendar;
+
+/**
+ * Operacoes sobre as datas das compras do sistema. As datas sao representadas
+ * como a quantidade de dias desde 01/01/1970 (dia epoca), em um inteiro do tipo
+ * int, para que sejam guardadas e comparadas sem objetos intermediarios. A
+ * conversao de e para o formato de texto so acontece na entrada e na exibicao
+ * das compras. Como o texto recebido nao e guardado, as datas sao sempre
+ * exibidas com dois digitos no dia e no mes, mesmo que tenham sido recebidas
+ * sem zeros a esquerda.
+ *
+ * @author Pedro Henrique
+ */
+public class Data {
+
+	/**
+	 * Valor retornado pela leitura de uma data invalida.
+	 */
+	public static final int INVALIDA = Integer.MIN_VALUE;
+
+	/**
+	 * Quantidade de dias de 01/03/0000 ate 01/01/1970.
+	 */
+	private static final int DIAS_ATE_EPOCA = 719468;
+
+	/**
+	 * Quantidade de dias em um ciclo de 400 anos do calendario gregoriano.
+	 */
+	private static final int DIAS_POR_ERA = 146097;
+
+	/**
+	 * Armazena o ano atual, recalculado apenas quando o ano muda.
+	 */
+	private static int anoAtual;
+
+	/**
+	 * Armazena o instante, em milissegundos, em que o ano atual termina.
+	 */
+	private static long fimAnoAtual;
+
+	/**
+	 * Le uma data no formato DD/MM/AAAA e a converte para o dia epoca, sem criar
+	 * objetos intermediarios. A data deve existir no calendario e seu ano deve ser
+	 * maior que 1900 e menor que ou igual ao ano atual.
+	 *
+	 * @param data e a data no formato DD/MM/AAAA.
+	 * @return e retornado o dia epoca da data ou {@value #INVALIDA} caso a data
+	 *         seja invalida.
+	 */
+	public static int paraDiaEpoca(String data) {
+		int dia = 0, mes = 0, ano = 0;
+		int campo = 0, digitos = 0;
+		for (int i = 0; i < data.length(); i++) {
+			char c = data.charAt(i);
+			if (c == '/') {
+				if (digitos == 0 || ++campo > 2)
+					return INVALIDA;
+				digitos = 0;
+			} else if (c >= '0' && c <= '9') {
+				if (++digitos > 4)
+					return INVALIDA;
+				if (campo == 0)
+					dia = dia * 10 + (c - '0');
+				else if (campo == 1)
+					mes = mes * 10 + (c - '0');
+				else
+					ano = ano * 10 + (c - '0');
+			} else {
+				return INVALIDA;
+			}
+		}
+		if (campo != 2 || digitos == 0 || mes < 1 || mes > 12 || dia < 1 || dia > diasNoMes(mes, ano)
+				|| ano <= 1900 || ano > anoAtual())
+			return INVALIDA;
+		return diaEpoca(ano, mes, dia);
+	}
+
+	/**
+	 * Converte uma data do calendario gregoriano para o dia epoca.
+	 *
+	 * @param ano e o ano da data.
+	 * @param mes e o mes da data, de 1 a 12.
+	 * @param dia e o dia do mes.
+	 * @return e retornado o dia epoca da data.
+	 */
+	public static int diaEpoca(int ano, int mes, int dia) {
+		int anoMarco = mes <= 2 ? ano - 1 : ano;
+		int era = (anoMarco >= 0 ? anoMarco : anoMarco - 399) / 400;
+		int anoDaEra = anoMarco - era * 400;
+		int diaDoAno = (153 * (mes > 2 ? mes - 3 : mes + 9) + 2) / 5 + dia - 1;
+		int diaDaEra = anoDaEra * 365 + anoDaEra / 4 - anoDaEra / 100 + diaDoAno;
+		return era * DIAS_POR_ERA + diaDaEra - DIAS_ATE_EPOCA;
+	}
+
+	/**
+	 * Escreve um dia epoca em um destino, no formato DD-MM-AAAA.
+	 *
+	 * @param destino  e onde a data sera escrita.
+	 * @param diaEpoca e o dia epoca da data.
+	 */
+	public static void escreve(StringBuilder destino, int diaEpoca) {
+		int data = decodifica(diaEpoca);
+		int dia = data % 100;
+		int mes = data / 100 % 100;
+		if (dia < 10)
+			destino.append('0');
+		destino.append(dia).append('-');
+		if (mes < 10)
+			destino.append('0');
+		destino.append(mes).append('-').append(data / 10000);
+	}
+
+	/**
+	 * Retorna um caractere do texto de uma data no formato DD-MM-AAAA, sem
+	 * formata-la.
+	 *
+	 * @param data    e a data no inteiro AAAAMMDD.
+	 * @param posicao e a posicao do caractere no texto, de 0 a 9.
+	 * @return e retornado o caractere da posicao.
+	 */
+	static char caractere(int data, int posicao) {
+		if (posicao == 2 || posicao == 5)
+			return '-';
+		int valor, digitos;
+		if (posicao < 2) {
+			valor = data % 100;
+			digitos = 2;
+		} else if (posicao < 5) {
+			valor = data / 100 % 100;
+			digitos = 2;
+			posicao -= 3;
+		} else {
+			valor = data / 10000;
+			digitos = 4;
+			posicao -= 6;
+		}
+		for (int i = digitos - 1; i > posicao; i--)
+			valor /= 10;
+		return (char) ('0' + valor % 10);
+	}
+
+	/**
+	 * Converte um dia epoca para a data do calendario gregoriano, no inteiro
+	 * AAAAMMDD.
+	 *
+	 * @param diaEpoca e o dia epoca da data.
+	 * @return e retornado a data como ano * 10000 + mes * 100 + dia.
+	 */
+	static int decodifica(int diaEpoca) {
+		int dias = diaEpoca + DIAS_ATE_EPOCA;
+		int era = (dias >= 0 ? dias : dias - DIAS_POR_ERA + 1) / DIAS_POR_ERA;
+		int diaDaEra = dias - era * DIAS_POR_ERA;
+		int anoDaEra = (diaDaEra - diaDaEra / 1460 + diaDaEra / 36524 - diaDaEra / 146096) / 365;
+		int diaDoAno = diaDaEra - (365 * anoDaEra + anoDaEra / 4 - anoDaEra / 100);
+		int mesMarco = (5 * diaDoAno + 2) / 153;
+		int dia = diaDoAno - (153 * mesMarco + 2) / 5 + 1;
+		int mes = mesMarco < 10 ? mesMarco + 3 : mesMarco - 9;
+		int ano = anoDaEra + era * 400 + (mes <= 2 ? 1 : 0);
+		return ano * 10000 + mes * 100 + dia;
+	}
+
+	/**
+	 * Formata um dia epoca no formato DD-MM-AAAA.
+	 *
+	 * @param diaEpoca e o dia epoca da data.
+	 * @return e retornado a data no formato DD-MM-AAAA.
+	 */
+	public static String formata(int diaEpoca) {
+		StringBuilder resultado = new StringBuilder(10);
+		escreve(resultado, diaEpoca);
+		return resultado.toString();
+	}
+
+	/**
+	 * Retorna a quantidade de dias de um mes.
+	 *
+	 * @param mes e o mes, de 1 a 12.
+	 * @param ano e o ano do mes.
+	 * @return e retornado a quantidade de dias do mes.
+	 */
+	private static int diasNoMes(int mes, int ano) {
+		if (mes == 2)
+			return (ano % 4 == 0 && ano % 100 != 0) || ano % 400 == 0 ? 29 : 28;
+		if (mes == 4 || mes == 6 || mes == 9 || mes == 11)
+			return 30;
+		return 31;
+	}
+
+	/**
+	 * Retorna o ano atual. O calendario so e consultado quando o ano guardado
+	 * termina.
+	 *
+	 * @return e retornado o ano atual.
+	 */
+	private static synchronized int anoAtual() {
+		long agora = System.currentTimeMillis();
+		if (agora >= fimAnoAtual) {
+			Calendar calendario = Calendar.getInstance();
+			calendario.setTimeInMillis(agora);
+			anoAtual = calendario.get(Calendar.YEAR);
+			calendario.clear();
+			calendario.set(anoAtual + 1, Calendar.JANUARY, 1);
+			fimAnoAtual = calendario.getTimeInMillis();
+		}
+		return anoAtual;
+	}
+}
@@ -0,0 +1,107 @@
+package saga;
+
+/**
+ * Comparacao das chaves de desempate dos criterios de ordenacao. Cada chave e a
+ * concatenacao de tres partes, a ultima podendo ser uma data no formato
+ * DD-MM-AAAA, e duas chaves sao comparadas caractere a caractere como os textos
+ * concatenados seriam, atravessando os limites entre as partes, sem que os
+ * textos sejam criados.
+ *
+ * @author Pedro Henrique
+ */
+public class Desempate {
+
+	/**
+	 * Quantidade de caracteres de uma data no formato DD-MM-AAAA.
+	 */
+	private static final int TAMANHO_DATA = 10;
+
+	/**
+	 * Compara as chaves primeiro + segundo + data de duas compras.
+	 *
+	 * @param primeiro1 e a primeira parte da chave da primeira compra.
+	 * @param segundo1  e a segunda parte da chave da primeira compra.
+	 * @param diaEpoca1 e o dia epoca da data da primeira compra.
+	 * @param primeiro2 e a primeira parte da chave da segunda compra.
+	 * @param segundo2  e a segunda parte da chave da segunda compra.
+	 * @param diaEpoca2 e o dia epoca da data da segunda compra.
+	 * @return e retornado um numero negativo, zero ou positivo caso a primeira
+	 *         chave seja menor, igual ou maior que a segunda.
+	 */
+	public static int compara(String primeiro1, String segundo1, int diaEpoca1, String primeiro2, String segundo2,
+			int diaEpoca2) {
+		return compara(primeiro1, segundo1, null, Data.decodifica(diaEpoca1), primeiro2, segundo2, null,
+				Data.decodifica(diaEpoca2));
+	}
+
+	/**
+	 * Compara as chaves primeiro + segundo + terceiro de duas compras.
+	 *
+	 * @param primeiro1 e a primeira parte da chave da primeira compra.
+	 * @param segundo1  e a segunda parte da chave da primeira compra.
+	 * @param terceiro1 e a terceira parte da chave da primeira compra.
+	 * @param primeiro2 e a primeira parte da chave da segunda compra.
+	 * @param segundo2  e a segunda parte da chave da segunda compra.
+	 * @param terceiro2 e a terceira parte da chave da segunda compra.
+	 * @return e retornado um numero negativo, zero ou positivo caso a primeira
+	 *         chave seja menor, igual ou maior que a segunda.
+	 */
+	public static int compara(String primeiro1, String segundo1, String terceiro1, String primeiro2,
+			String segundo2, String terceiro2) {
+		return compara(primeiro1, segundo1, terceiro1, 0, primeiro2, segundo2, terceiro2, 0);
+	}
+
+	/**
+	 * Compara duas chaves caractere a caractere, da mesma forma que o compareTo
+	 * de String compararia os textos concatenados. Uma terceira parte nula indica
+	 * que a chave termina com a data recebida.
+	 *
+	 * @param primeiro1 e a primeira parte da chave da primeira compra.
+	 * @param segundo1  e a segunda parte da chave da primeira compra.
+	 * @param terceiro1 e a terceira parte da chave da primeira compra, ou null.
+	 * @param data1     e a data da primeira compra no inteiro AAAAMMDD.
+	 * @param primeiro2 e a primeira parte da chave da segunda compra.
+	 * @param segundo2  e a segunda parte da chave da segunda compra.
+	 * @param terceiro2 e a terceira parte da chave da segunda compra, ou null.
+	 * @param data2     e a data da segunda compra no inteiro AAAAMMDD.
+	 * @return e retornado a diferenca entre os primeiros caracteres diferentes ou,
+	 *         caso uma chave comece com a outra, a diferenca entre seus tamanhos.
+	 */
+	private static int compara(String primeiro1, String segundo1, String terceiro1, int data1, String primeiro2,
+			String segundo2, String terceiro2, int data2) {
+		int tamanho1 = primeiro1.length() + segundo1.length()
+				+ (terceiro1 == null ? TAMANHO_DATA : terceiro1.length());
+		int tamanho2 = primeiro2.length() + segundo2.length()
+				+ (terceiro2 == null ? TAMANHO_DATA : terceiro2.length());
+		int tamanho = Math.min(tamanho1, tamanho2);
+		for (int i = 0; i < tamanho; i++) {
+			char c1 = caractere(primeiro1, segundo1, terceiro1, data1, i);
+			char c2 = caractere(primeiro2, segundo2, terceiro2, data2, i);
+			if (c1 != c2)
+				return c1 - c2;
+		}
+		return tamanho1 - tamanho2;
+	}
+
+	/**
+	 * Retorna um caractere de uma chave.
+	 *
+	 * @param primeiro e a primeira parte da chave.
+	 * @param segundo  e a segunda parte da chave.
+	 * @param terceiro e a terceira parte da chave, ou null caso seja a data.
+	 * @param data     e a data da chave no inteiro AAAAMMDD.
+	 * @param posicao  e a posicao do caractere na chave.
+	 * @return e retornado o caractere da posicao.
+	 */
+	private static char caractere(String primeiro, String segundo, String terceiro, int data, int posicao) {
+		if (posicao < primeiro.length())
+			return primeiro.charAt(posicao);
+		posicao -= primeiro.length();
+		if (posicao < segundo.length())
+			return segundo.charAt(posicao);
+		posicao -= segundo.length();
+		if (terceiro != null)
+			return terceiro.charAt(posicao);
+		return Data.caractere(data, posicao);
+	}
+}
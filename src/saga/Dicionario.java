@@ -0,0 +1,83 @@
+package saga;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Representacao de um dicionario de valores. Cada valor distinto adicionado ao
+ * dicionario recebe um codigo inteiro, atribuido em ordem de chegada a partir
+ * de 0, permitindo que colecoes grandes guardem apenas o codigo de valores que
+ * se repetem.
+ *
+ * @author Pedro Henrique
+ *
+ * @param <T> e o tipo dos valores do dicionario.
+ */
+public class Dicionario<T> {
+
+	/**
+	 * Armazena no mapa de codigos o valor, codigo do valor.
+	 */
+	private HashMap<T, Integer> codigos;
+
+	/**
+	 * Armazena os valores do dicionario, na posicao de seus codigos.
+	 */
+	private ArrayList<T> valores;
+
+	/**
+	 * Constroi o mapa de codigos e a lista de valores.
+	 */
+	public Dicionario() {
+		this.codigos = new HashMap<>();
+		this.valores = new ArrayList<>();
+	}
+
+	/**
+	 * Retorna o codigo de um valor. Caso o valor ainda nao possua codigo, ele sera
+	 * adicionado ao dicionario com o proximo codigo livre.
+	 *
+	 * @param valor e o valor a ser codificado.
+	 * @return e retornado o codigo do valor.
+	 */
+	public int codifica(T valor) {
+		Integer codigo = this.codigos.get(valor);
+		if (codigo == null) {
+			codigo = this.valores.size();
+			this.codigos.put(valor, codigo);
+			this.valores.add(valor);
+		}
+		return codigo;
+	}
+
+	/**
+	 * Retorna o codigo de um valor, sem adiciona-lo ao dicionario.
+	 *
+	 * @param valor e o valor procurado.
+	 * @return e retornado o codigo do valor ou -1 caso o valor nao esteja no
+	 *         dicionario.
+	 */
+	public int procura(T valor) {
+		Integer codigo = this.codigos.get(valor);
+		return codigo == null ? -1 : codigo;
+	}
+
+	/**
+	 * Retorna o valor associado a um codigo.
+	 *
+	 * @param codigo e o codigo do valor.
+	 * @return e retornado o valor do codigo.
+	 */
+	public T decodifica(int codigo) {
+		return this.valores.get(codigo);
+	}
+
+	/**
+	 * Retorna a quantidade de valores distintos do dicionario.
+	 *
+	 * @return e retornado a quantidade de valores.
+	 */
+	public int tamanho() {
+		return this.valores.size();
+	}
+}
@@ -0,0 +1,55 @@
+package saga;
+
+/**
+ * Operacoes sobre valores monetarios do sistema. Todos os valores sao
+ * representados em centavos, como inteiros do tipo long, para que somas e
+ * subtracoes sejam exatas.
+ *
+ * @author Pedro Henrique
+ */
+public class Dinheiro {
+
+	/**
+	 * Converte um valor em reais para centavos, arredondando para o centavo mais
+	 * proximo.
+	 *
+	 * @param valor e o valor em reais.
+	 * @return e retornado o valor em centavos.
+	 */
+	public static long paraCentavos(double valor) {
+		return Math.round(valor * 100);
+	}
+
+	/**
+	 * Aplica um fator de desconto a um valor em centavos, arredondando para o
+	 * centavo mais proximo.
+	 *
+	 * @param centavos e o valor em centavos.
+	 * @param fator    e o fator de desconto, entre 0 e 1.
+	 * @return e retornado o valor com desconto em centavos.
+	 */
+	public static long aplicaDesconto(long centavos, double fator) {
+		return Math.round(centavos * (1 - fator));
+	}
+
+	/**
+	 * Formata um valor em centavos com duas casas decimais, no formato X,XX ou
+	 * X.XX a depender do separador.
+	 *
+	 * @param centavos  e o valor em centavos.
+	 * @param separador e o separador das casas decimais.
+	 * @return e retornado o valor formatado.
+	 */
+	public static String formata(long centavos, char separador) {
+		StringBuilder resultado = new StringBuilder();
+		if (centavos < 0) {
+			resultado.append('-');
+			centavos = -centavos;
+		}
+		long resto = centavos % 100;
+		resultado.append(centavos / 100).append(separador);
+		if (resto < 10)
+			resultado.append('0');
+		return resultado.append(resto).toString();
+	}
+}
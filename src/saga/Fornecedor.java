@@ -1,7 +1,10 @@
 package saga;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Calendar;
+import java.util.Collection;
 
 /**
  * Representacao de um Fornecedor no sistema. Todo fornecedor possui um nome
@@ -89,6 +92,27 @@ public class Fornecedor implements Comparable<Fornecedor> {
 		return false;
 	}
 
+	/**
+	 * Recupera o id canonico de um produto do fornecedor a partir de seu nome e
+	 * descricao. Caso o produto nao exista sera retornado null.
+	 * 
+	 * @param nome      e o nome do produto.
+	 * @param descricao e a descricao do produto.
+	 * @return e retornado o id do produto ou null caso ele nao exista.
+	 */
+	public IdProduto recuperaIdProduto(String nome, String descricao) {
+		return this.controladorProduto.recuperaIdProduto(nome, descricao);
+	}
+
+	/**
+	 * Retorna todos os produtos do fornecedor, ordenados pelo nome e descricao.
+	 * 
+	 * @return e retornado a colecao de produtos do fornecedor.
+	 */
+	public Collection<Produto> getProdutos() {
+		return this.controladorProduto.getProdutos();
+	}
+
 	/**
 	 * Retorna true caso o fornecedor possua algum produto cadastrado. Caso nao
 	 * possua, sera retornado false.
@@ -118,8 +142,9 @@ public class Fornecedor implements Comparable<Fornecedor> {
 	 * @param nome      e nome do produto.
 	 * @param descricao e a descricao do produto.
 	 * @param preco     e o preco do produto.
+	 * @return e retornado o produto cadastrado.
 	 */
-	public void adicionaProduto(String nome, String descricao, double preco) {
+	public Produto adicionaProduto(String nome, String descricao, double preco) {
 		if (nome == null || nome.equals(""))
 			throw new IllegalArgumentException("Erro no cadastro de produto: nome nao pode ser vazio ou nulo.");
 		if (descricao == null || descricao.equals(""))
@@ -127,7 +152,7 @@ public class Fornecedor implements Comparable<Fornecedor> {
 		if (existeProduto(nome, descricao)) {
 			throw new IllegalArgumentException("Erro no cadastro de produto: produto ja existe.");
 		}
-		this.controladorProduto.adicionaProduto(nome, descricao, preco);
+		return this.controladorProduto.adicionaProduto(nome, descricao, preco);
 	}
 
 	/**
@@ -224,27 +249,6 @@ public class Fornecedor implements Comparable<Fornecedor> {
 		this.controladorProduto.removeProduto(nome, descricao);
 	}
 
-	/**
-	 * Recupera o preco do produto a partir de seu nome e descricao.
-	 * 
-	 * Caso o nome seja nulo ou vazio sera lancado um IllegalArgumentException:
-	 * "Erro na remocao de produto: nome nao pode ser vazio ou nulo." Caso a
-	 * descricao seja nula ou vazia sera lancado um IllegalArgumentException: "Erro
-	 * na remocao de produto: descricao nao pode ser vazia ou nula."
-	 * 
-	 * @param nome      e o nome do produto.
-	 * @param descricao e a descricao do produto.
-	 * @return e retornado o preco do produto.
-	 */
-	private double getPrecoProduto(String nome, String descricao) {
-		if (nome == null || nome.equals(""))
-			throw new IllegalArgumentException("Erro na remocao de produto: nome nao pode ser vazio ou nulo.");
-		if (descricao == null || descricao.equals(""))
-			throw new IllegalArgumentException("Erro na remocao de produto: descricao nao pode ser vazia ou nula.");
-
-		return this.controladorProduto.getPrecoProduto(nome, descricao);
-	}
-
 	/**
 	 * Retorna a representacao String do Fornecedor, no formato: NOME - EMAIL -
 	 * TELEFONE
@@ -274,8 +278,9 @@ public class Fornecedor implements Comparable<Fornecedor> {
 	 * @param nome      e o nome do produto da compra.
 	 * @param descricao e a descricao do produto da compra.
 	 * @param cliente   e o cliente que efetuou a compra.
+	 * @return e retornado a compra adicionada.
 	 */
-	public void adicionaCompra(String cpf, String data, String nome, String descricao, String cliente) {
+	public Compra adicionaCompra(String cpf, String data, String nome, String descricao, String cliente) {
 		if (nome == null || nome.equals(""))
 			throw new IllegalArgumentException("Erro ao cadastrar compra: nome do produto nao pode ser vazio ou nulo.");
 		if (descricao == null || descricao.equals(""))
@@ -285,22 +290,12 @@ public class Fornecedor implements Comparable<Fornecedor> {
 			throw new IllegalArgumentException("Erro ao cadastrar compra: data nao pode ser vazia ou nula.");
 		if (!existeProduto(nome, descricao))
 			throw new IllegalArgumentException("Erro ao cadastrar compra: produto nao existe.");
-		String[] valoresData = data.split("/");
-		int dia, mes, ano;
-		try {
-			dia = Integer.parseInt(valoresData[0]);
-			mes = Integer.parseInt(valoresData[1]);
-			ano = Integer.parseInt(valoresData[2]);
-		} catch (ArrayIndexOutOfBoundsException aiobe) {
-			throw new IllegalArgumentException("Erro ao cadastrar compra: data invalida.");
-		}
-		if (dia <= 0 || dia > 31 || mes <= 0 || mes > 12 || ano <= 1900
-				|| ano > Calendar.getInstance().get(Calendar.YEAR))
+		int diaEpoca = Data.paraDiaEpoca(data);
+		if (diaEpoca == Data.INVALIDA)
 			throw new IllegalArgumentException("Erro ao cadastrar compra: data invalida.");
 
-		data = data.replace("/", "-");
-		double preco = this.getPrecoProduto(nome, descricao);
-		this.controladorConta.adicionaCompra(cpf, data, nome, descricao, cliente, preco);
+		Produto produto = this.controladorProduto.recuperaProduto(nome, descricao);
+		return this.controladorConta.adicionaCompra(cpf, diaEpoca, produto.getId(), cliente, produto.getPreco());
 	}
 
 	/**
@@ -311,9 +306,24 @@ public class Fornecedor implements Comparable<Fornecedor> {
 	 * @param descricao e a descricao do combo.
 	 * @param fator     e o fator de desconto do combo.
 	 * @param produtos  e a lista de produtos que compoem o combo.
+	 * @return e retornado o combo cadastrado.
 	 */
-	public void adicionaCombo(String nome, String descricao, double fator, String produtos) {
-		this.controladorProduto.adicionaCombo(nome, descricao, fator, produtos);
+	public ProdutoCombo adicionaCombo(String nome, String descricao, double fator, String produtos) {
+		return this.controladorProduto.adicionaCombo(nome, descricao, fator, produtos);
+	}
+
+	/**
+	 * Adiciona um combo ao controlador de produtos a partir dos ids, ja
+	 * recuperados deste fornecedor, dos produtos que o compoem.
+	 * 
+	 * @param nome        e o nome do combo.
+	 * @param descricao   e a descricao do combo.
+	 * @param fator       e o fator de desconto do combo.
+	 * @param componentes e a lista de ids dos produtos que compoem o combo.
+	 * @return e retornado o combo cadastrado.
+	 */
+	public ProdutoCombo adicionaCombo(String nome, String descricao, double fator, ArrayList<IdProduto> componentes) {
+		return this.controladorProduto.adicionaCombo(nome, descricao, fator, componentes);
 	}
 
 	/**
@@ -350,6 +360,16 @@ public class Fornecedor implements Comparable<Fornecedor> {
 		return controladorConta.retornaCompras();
 	}
 
+	/**
+	 * Retorna as compras em aberto de um cliente neste fornecedor.
+	 * 
+	 * @param cpf e o cpf do cliente.
+	 * @return e retornado a lista das compras em aberto do cliente.
+	 */
+	public ArrayList<Compra> retornaCompras(String cpf) {
+		return controladorConta.retornaCompras(cpf);
+	}
+
 	/**
 	 * Retorna o debito que um cliente possui neste fornecedor.
 	 * 
@@ -360,10 +380,47 @@ public class Fornecedor implements Comparable<Fornecedor> {
 		return this.controladorConta.getDebitoCliente(cpf);
 	}
 
+	/**
+	 * Retorna o debito em aberto de todos os clientes com o fornecedor.
+	 * 
+	 * @return e retornado o debito total do fornecedor.
+	 */
+	public String getDebitoTotal() {
+		return this.controladorConta.getDebitoTotal();
+	}
+
 	public String getNome() {
 		return this.nome;
 	}
 
+	/**
+	 * Escreve o fornecedor na imagem do sistema, junto com seus produtos e contas.
+	 * 
+	 * @param saida e a saida da imagem.
+	 * @throws IOException caso a saida nao possa ser escrita.
+	 */
+	void escreve(DataOutputStream saida) throws IOException {
+		ImagemSistema.escreveTexto(saida, this.nome);
+		ImagemSistema.escreveTexto(saida, this.email);
+		ImagemSistema.escreveTexto(saida, this.telefone);
+		this.controladorProduto.escreve(saida);
+		this.controladorConta.escreve(saida);
+	}
+
+	/**
+	 * Le um fornecedor da imagem do sistema, junto com seus produtos e contas.
+	 * 
+	 * @param entrada e a entrada da imagem.
+	 * @return e retornado o fornecedor lido.
+	 */
+	static Fornecedor le(ByteBuffer entrada) {
+		Fornecedor fornecedor = new Fornecedor(ImagemSistema.leTexto(entrada), ImagemSistema.leTexto(entrada),
+				ImagemSistema.leTexto(entrada));
+		fornecedor.controladorProduto.le(entrada);
+		fornecedor.controladorConta.le(entrada);
+		return fornecedor;
+	}
+
 	public void setEmail(String valor) {
 		this.email = valor;
 	}
@@ -416,6 +473,20 @@ public class Fornecedor implements Comparable<Fornecedor> {
 		return this.controladorConta.exibeContas(cpf);
 	}
 
+	/**
+	 * Escreve uma pagina das compras que um cliente possui neste fornecedor em um
+	 * destino. {@link saga.ControllerConta#exibeCompras(String, StringBuilder, int, int)}
+	 * 
+	 * @param cpf           e o cpf do cliente.
+	 * @param destino       e onde as compras serao escritas.
+	 * @param inicio        e a posicao da primeira compra da pagina.
+	 * @param tamanhoPagina e a quantidade maxima de compras da pagina.
+	 * @return e retornado a posicao da proxima compra ou -1.
+	 */
+	public int exibeCompras(String cpf, StringBuilder destino, int inicio, int tamanhoPagina) {
+		return this.controladorConta.exibeCompras(cpf, destino, inicio, tamanhoPagina);
+	}
+
 	/**
 	 * Retorna se o fornecedor possui conta com determinado cliente.
 	 * 
@@ -426,12 +497,56 @@ public class Fornecedor implements Comparable<Fornecedor> {
 		return this.controladorConta.existeConta(cpf);
 	}
 
+	/**
+	 * Retorna se determinado cliente ja pagou alguma conta neste fornecedor.
+	 * 
+	 * @param cpf e o cpf do cliente.
+	 * @return e retornado um boolean se existe ou nao um pagamento neste
+	 *         fornecedor.
+	 */
+	public boolean possuiPagamento(String cpf) {
+		return this.controladorConta.possuiPagamento(cpf);
+	}
+
+	/**
+	 * Exibe todas as compras ja pagas por um cliente neste fornecedor.
+	 * {@link saga.ControllerConta#exibeHistorico(String, StringBuilder)}
+	 * 
+	 * @param cpf     e o cpf do cliente.
+	 * @param destino e onde as compras serao escritas.
+	 */
+	public void exibeHistorico(String cpf, StringBuilder destino) {
+		this.controladorConta.exibeHistorico(cpf, destino);
+	}
+
+	/**
+	 * Paga parte do debito de um cliente neste fornecedor.
+	 * {@link saga.ControllerConta#realizaPagamento(String, long)}
+	 * 
+	 * @param cpf   e o cpf do cliente.
+	 * @param valor e o valor pago em centavos.
+	 * @return e retornado a lista das compras quitadas pelo pagamento.
+	 */
+	public ArrayList<Compra> realizaPagamento(String cpf, long valor) {
+		return this.controladorConta.realizaPagamento(cpf, valor);
+	}
+
+	/**
+	 * Retorna os cpfs dos clientes que possuem conta neste fornecedor.
+	 * 
+	 * @return e retornado a colecao de cpfs dos clientes com conta.
+	 */
+	public Collection<String> getCpfsComConta() {
+		return this.controladorConta.getCpfs();
+	}
+
 	/**
 	 * Realiza o pagamento das contas de um cliente.
 	 * 
 	 * @param cpf e o cpf de um cliente.
+	 * @return e retornado a lista das compras quitadas pelo pagamento.
 	 */
-	public void realizaPagamento(String cpf) {
-		this.controladorConta.realizaPagamento(cpf);
+	public ArrayList<Compra> realizaPagamento(String cpf) {
+		return this.controladorConta.realizaPagamento(cpf);
 	}
 }
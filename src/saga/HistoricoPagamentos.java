@@ -0,0 +1,274 @@
+package saga;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Representacao do historico de pagamentos de um fornecedor. Cada pagamento,
+ * total ou parcial, e arquivado neste historico junto com as compras que ele
+ * terminou de quitar. As compras sao movidas do {@link saga.ArmazemCompras} do
+ * fornecedor para o historico, que guarda delas apenas o que e exibido (o nome
+ * do produto e a data), e suas linhas sao liberadas no armazem. Assim, as
+ * consultas de debito percorrem apenas as compras em aberto, o armazem nao
+ * cresce com as compras pagas e elas continuam disponiveis para consulta.
+ *
+ * Os pagamentos sao guardados em colunas, um pagamento por linha: o cliente,
+ * como codigo de um dicionario de cpfs, o valor pago, o inicio de suas compras
+ * nas colunas de compras compartilhadas por todos os pagamentos e o pagamento
+ * anterior do mesmo cliente, formando uma lista encadeada por cliente.
+ *
+ * @author Pedro Henrique
+ */
+public class HistoricoPagamentos {
+
+	/**
+	 * Capacidade inicial das colunas do historico.
+	 */
+	private static final int CAPACIDADE_INICIAL = 8;
+
+	/**
+	 * Armazena o armazem de compras do fornecedor.
+	 */
+	private ArmazemCompras armazem;
+
+	/**
+	 * Dicionario dos cpfs dos clientes que realizaram pagamentos.
+	 */
+	private Dicionario<String> cpfs;
+
+	/**
+	 * Armazena, para cada codigo de cliente, o seu ultimo pagamento.
+	 */
+	private int[] ultimos;
+
+	/**
+	 * Armazena, para cada codigo de cliente, a quantidade de compras quitadas por
+	 * seus pagamentos.
+	 */
+	private int[] comprasClientes;
+
+	/**
+	 * Armazena o codigo do cliente de cada pagamento.
+	 */
+	private int[] clientes;
+
+	/**
+	 * Armazena o pagamento anterior do mesmo cliente de cada pagamento, ou -1.
+	 */
+	private int[] anteriores;
+
+	/**
+	 * Armazena o valor, em centavos, de cada pagamento.
+	 */
+	private long[] valores;
+
+	/**
+	 * Armazena a posicao, nas colunas de compras, da primeira compra de cada
+	 * pagamento.
+	 */
+	private int[] inicios;
+
+	/**
+	 * Armazena a quantidade de pagamentos.
+	 */
+	private int tamanho;
+
+	/**
+	 * Armazena o codigo do nome do produto de cada compra quitada, na ordem dos
+	 * pagamentos.
+	 */
+	private int[] nomes;
+
+	/**
+	 * Armazena a data, como dia epoca, de cada compra quitada, na ordem dos
+	 * pagamentos.
+	 */
+	private int[] datas;
+
+	/**
+	 * Armazena a quantidade de compras quitadas de todos os pagamentos.
+	 */
+	private int quantidadeCompras;
+
+	/**
+	 * Dicionario dos nomes dos produtos das compras quitadas.
+	 */
+	private Dicionario<String> dicionarioNomes;
+
+	/**
+	 * Constroi um historico vazio para as compras de um armazem.
+	 *
+	 * @param armazem e o armazem de compras do fornecedor.
+	 */
+	public HistoricoPagamentos(ArmazemCompras armazem) {
+		this.armazem = armazem;
+		this.cpfs = new Dicionario<>();
+		this.ultimos = new int[CAPACIDADE_INICIAL];
+		this.comprasClientes = new int[CAPACIDADE_INICIAL];
+		this.clientes = new int[CAPACIDADE_INICIAL];
+		this.anteriores = new int[CAPACIDADE_INICIAL];
+		this.valores = new long[CAPACIDADE_INICIAL];
+		this.inicios = new int[CAPACIDADE_INICIAL];
+		this.nomes = new int[CAPACIDADE_INICIAL];
+		this.datas = new int[CAPACIDADE_INICIAL];
+		this.dicionarioNomes = new Dicionario<>();
+	}
+
+	/**
+	 * Arquiva um pagamento de uma conta, movendo as compras quitadas do armazem
+	 * para o historico e liberando suas linhas no armazem.
+	 *
+	 * @param cpf        e o cpf do cliente.
+	 * @param linhas     e o vetor de linhas das compras quitadas.
+	 * @param inicio     e a posicao da primeira linha quitada no vetor.
+	 * @param quantidade e a quantidade de linhas quitadas.
+	 * @param valor      e o valor pago em centavos.
+	 */
+	public void arquiva(String cpf, int[] linhas, int inicio, int quantidade, long valor) {
+		int posicao = adicionaPagamento(cpf, quantidade, valor);
+		for (int i = inicio; i < inicio + quantidade; i++) {
+			this.nomes[posicao] = this.dicionarioNomes.codifica(this.armazem.getProduto(linhas[i]).getNome());
+			this.datas[posicao++] = this.armazem.getData(linhas[i]);
+			this.armazem.libera(linhas[i]);
+		}
+	}
+
+	/**
+	 * Adiciona um pagamento ao historico, reservando espaco para as suas compras
+	 * ao final das colunas de compras.
+	 *
+	 * @param cpf        e o cpf do cliente.
+	 * @param quantidade e a quantidade de compras quitadas pelo pagamento.
+	 * @param valor      e o valor pago em centavos.
+	 * @return e retornado a posicao, nas colunas de compras, da primeira compra do
+	 *         pagamento.
+	 */
+	private int adicionaPagamento(String cpf, int quantidade, long valor) {
+		int novoCliente = this.cpfs.tamanho();
+		int cliente = this.cpfs.codifica(cpf);
+		if (cliente == novoCliente) {
+			if (cliente == this.ultimos.length) {
+				this.ultimos = Arrays.copyOf(this.ultimos, cliente * 2);
+				this.comprasClientes = Arrays.copyOf(this.comprasClientes, cliente * 2);
+			}
+			this.ultimos[cliente] = -1;
+		}
+
+		if (this.tamanho == this.clientes.length) {
+			int capacidade = this.tamanho * 2;
+			this.clientes = Arrays.copyOf(this.clientes, capacidade);
+			this.anteriores = Arrays.copyOf(this.anteriores, capacidade);
+			this.valores = Arrays.copyOf(this.valores, capacidade);
+			this.inicios = Arrays.copyOf(this.inicios, capacidade);
+		}
+		if (this.quantidadeCompras + quantidade > this.nomes.length) {
+			int capacidade = Math.max(this.nomes.length * 2, this.quantidadeCompras + quantidade);
+			this.nomes = Arrays.copyOf(this.nomes, capacidade);
+			this.datas = Arrays.copyOf(this.datas, capacidade);
+		}
+
+		int posicao = this.quantidadeCompras;
+		this.clientes[this.tamanho] = cliente;
+		this.anteriores[this.tamanho] = this.ultimos[cliente];
+		this.valores[this.tamanho] = valor;
+		this.inicios[this.tamanho] = posicao;
+		this.ultimos[cliente] = this.tamanho++;
+		this.comprasClientes[cliente] += quantidade;
+		this.quantidadeCompras += quantidade;
+		return posicao;
+	}
+
+	/**
+	 * Retorna um boolean indicando se um cliente possui algum pagamento arquivado
+	 * que tenha quitado ao menos uma compra. Pagamentos parciais que nao quitaram
+	 * nenhuma compra nao tem o que exibir e nao sao considerados.
+	 *
+	 * @param cpf e o cpf do cliente.
+	 * @return e retornado true caso o cliente possua pagamento, caso contrario,
+	 *         false.
+	 */
+	public boolean possuiPagamento(String cpf) {
+		int cliente = this.cpfs.procura(cpf);
+		return cliente != -1 && this.comprasClientes[cliente] > 0;
+	}
+
+	/**
+	 * Escreve no destino todas as compras quitadas de um cliente, na ordem em que
+	 * foram quitadas, separadas por " | ".
+	 *
+	 * @param cpf     e o cpf do cliente.
+	 * @param destino e onde as compras serao escritas.
+	 */
+	public void exibeHistorico(String cpf, StringBuilder destino) {
+		int cliente = this.cpfs.procura(cpf);
+		if (cliente == -1)
+			return;
+		int quantidade = 0;
+		for (int pagamento = this.ultimos[cliente]; pagamento != -1; pagamento = this.anteriores[pagamento])
+			quantidade++;
+		int[] pagamentos = new int[quantidade];
+		for (int pagamento = this.ultimos[cliente]; pagamento != -1; pagamento = this.anteriores[pagamento])
+			pagamentos[--quantidade] = pagamento;
+
+		boolean primeira = true;
+		for (int pagamento : pagamentos) {
+			int fim = pagamento + 1 < this.tamanho ? this.inicios[pagamento + 1] : this.quantidadeCompras;
+			for (int i = this.inicios[pagamento]; i < fim; i++) {
+				if (!primeira)
+					destino.append(" | ");
+				destino.append(this.dicionarioNomes.decodifica(this.nomes[i])).append(" - ");
+				Data.escreve(destino, this.datas[i]);
+				primeira = false;
+			}
+		}
+	}
+
+	/**
+	 * Escreve o historico na imagem do sistema: o dicionario de nomes dos produtos
+	 * e os pagamentos, em ordem, com o cpf do cliente, o valor pago e o nome e a
+	 * data de suas compras.
+	 *
+	 * @param saida e a saida da imagem.
+	 * @throws IOException caso a saida nao possa ser escrita.
+	 */
+	void escreve(DataOutputStream saida) throws IOException {
+		saida.writeInt(this.dicionarioNomes.tamanho());
+		for (int i = 0; i < this.dicionarioNomes.tamanho(); i++)
+			ImagemSistema.escreveTexto(saida, this.dicionarioNomes.decodifica(i));
+		saida.writeInt(this.tamanho);
+		for (int pagamento = 0; pagamento < this.tamanho; pagamento++) {
+			int fim = pagamento + 1 < this.tamanho ? this.inicios[pagamento + 1] : this.quantidadeCompras;
+			ImagemSistema.escreveTexto(saida, this.cpfs.decodifica(this.clientes[pagamento]));
+			saida.writeLong(this.valores[pagamento]);
+			saida.writeInt(fim - this.inicios[pagamento]);
+			for (int i = this.inicios[pagamento]; i < fim; i++) {
+				saida.writeInt(this.nomes[i]);
+				saida.writeInt(this.datas[i]);
+			}
+		}
+	}
+
+	/**
+	 * Le o historico da imagem do sistema. O historico deve estar vazio.
+	 *
+	 * @param entrada e a entrada da imagem.
+	 */
+	void le(ByteBuffer entrada) {
+		int quantidadeNomes = entrada.getInt();
+		for (int i = 0; i < quantidadeNomes; i++)
+			this.dicionarioNomes.codifica(ImagemSistema.leTexto(entrada));
+		int quantidade = entrada.getInt();
+		for (int pagamento = 0; pagamento < quantidade; pagamento++) {
+			String cpf = ImagemSistema.leTexto(entrada);
+			long valor = entrada.getLong();
+			int compras = entrada.getInt();
+			int posicao = adicionaPagamento(cpf, compras, valor);
+			for (int i = 0; i < compras; i++) {
+				this.nomes[posicao] = entrada.getInt();
+				this.datas[posicao++] = entrada.getInt();
+			}
+		}
+	}
+}
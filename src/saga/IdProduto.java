@@ -2,21 +2,26 @@ package saga;
 
 /**
  * Representacao do identificador unico de Produto. E composto por um nome e uma
- * descricao.
+ * descricao. Ids sao ordenados pelo nome e, em caso de empate, pela descricao.
  * 
  * @author Pedro Henrique
  */
-public class IdProduto {
+public class IdProduto implements Comparable<IdProduto> {
 
 	/**
 	 * Nome do produto que o identificara unicamente.
 	 */
-	private String nome;
+	private final String nome;
 
 	/**
 	 * Descricao do produto que o identificara unicamente.
 	 */
-	private String descricao;
+	private final String descricao;
+
+	/**
+	 * Codigo hash do id, calculado uma unica vez na construcao.
+	 */
+	private final int hash;
 
 	/**
 	 * Constroi um IdProduto com nome e descricao.
@@ -27,6 +32,7 @@ public class IdProduto {
 	public IdProduto(String nome, String descricao) {
 		this.nome = nome;
 		this.descricao = descricao;
+		this.hash = calculaHash();
 	}
 
 	public String getNome() {
@@ -47,6 +53,15 @@ public class IdProduto {
 
 	@Override
 	public int hashCode() {
+		return this.hash;
+	}
+
+	/**
+	 * Calcula o codigo hash a partir do nome e da descricao.
+	 * 
+	 * @return e retornado o codigo hash do id.
+	 */
+	private int calculaHash() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((descricao == null) ? 0 : descricao.hashCode());
@@ -63,6 +78,8 @@ public class IdProduto {
 		if (getClass() != obj.getClass())
 			return false;
 		IdProduto other = (IdProduto) obj;
+		if (hash != other.hash)
+			return false;
 		if (descricao == null) {
 			if (other.descricao != null)
 				return false;
@@ -76,4 +93,18 @@ public class IdProduto {
 		return true;
 	}
 
+	/**
+	 * Compara dois ids pelos seus nomes. Caso os nomes sejam iguais serao
+	 * comparadas as descricoes.
+	 * 
+	 * @return e retornado um valor negativo, 0 ou positivo a depender da ordem
+	 *         lexicografica do nome e da descricao.
+	 */
+	@Override
+	public int compareTo(IdProduto o) {
+		int comparacao = this.nome.compareTo(o.nome);
+		if (comparacao != 0)
+			return comparacao;
+		return this.descricao.compareTo(o.descricao);
+	}
 }
@@ -0,0 +1,248 @@
+package saga;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Representacao da imagem binaria do sistema. A imagem guarda todo o estado do
+ * sistema (clientes, fornecedores com seus produtos e contas, e o criterio de
+ * listagem) junto com a sequencia da ultima operacao do registro de operacoes
+ * que ela contem e a posicao do registro logo apos essa operacao. Ao recuperar
+ * o sistema, a imagem e carregada e apenas as operacoes posteriores a ela sao
+ * reaplicadas.
+ *
+ * O formato da imagem e: MAGICO (int), VERSAO (int), SEQUENCIA (long), POSICAO
+ * (long) e o estado do sistema, escrito por cada classe. Os textos sao escritos
+ * como o tamanho em bytes (int) seguido dos bytes em UTF-8, e os numeros em
+ * big-endian. A imagem e lida atraves de um mapeamento do arquivo em memoria.
+ *
+ * A imagem e codificada na thread que a pede, garantindo um estado
+ * consistente, e gravada em segundo plano em um arquivo temporario que, ao
+ * final, substitui o arquivo da imagem.
+ *
+ * @author Pedro Henrique
+ */
+public class ImagemSistema {
+
+	/**
+	 * Numero que identifica o arquivo como uma imagem do sistema.
+	 */
+	public static final int MAGICO = 0x53414741;
+
+	/**
+	 * Versao do formato da imagem.
+	 */
+	public static final int VERSAO = 7;
+
+	/**
+	 * Armazena o caminho do arquivo da imagem.
+	 */
+	private Path arquivo;
+
+	/**
+	 * Armazena a thread que grava a ultima imagem pedida.
+	 */
+	private Thread gravacao;
+
+	/**
+	 * Armazena o erro da ultima gravacao, caso ela tenha falhado.
+	 */
+	private IOException erroGravacao;
+
+	/**
+	 * Armazena a sequencia da ultima operacao contida na imagem carregada.
+	 */
+	private long sequencia;
+
+	/**
+	 * Armazena a posicao do registro de operacoes logo apos a ultima operacao
+	 * contida na imagem carregada.
+	 */
+	private long posicaoRegistro;
+
+	/**
+	 * Constroi a imagem a partir do caminho de seu arquivo.
+	 *
+	 * @param arquivo e o caminho do arquivo da imagem.
+	 */
+	public ImagemSistema(String arquivo) {
+		this.arquivo = Paths.get(arquivo);
+	}
+
+	/**
+	 * Carrega a imagem no sistema. Caso o arquivo da imagem nao exista nada e
+	 * carregado. Caso o arquivo nao seja uma imagem valida, por exemplo, uma
+	 * imagem de outra versao do formato, o erro e anotado na saida de erro e a
+	 * imagem e ignorada. Nesse caso o sistema pode ter recebido parte do estado
+	 * da imagem e deve ser reconstruido a partir do registro de operacoes.
+	 *
+	 * Caso o arquivo nao possa ser lido sera lancado um IllegalArgumentException:
+	 * "Erro na recuperacao do sistema: imagem nao pode ser lida."
+	 *
+	 * @param sistema e o sistema que recebera o estado da imagem.
+	 * @return e retornado true caso a imagem tenha sido carregada, caso contrario,
+	 *         false.
+	 */
+	public boolean carrega(Sistema sistema) {
+		try (FileChannel canal = FileChannel.open(this.arquivo, StandardOpenOption.READ)) {
+			MappedByteBuffer entrada = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+			if (entrada.remaining() < 24 || entrada.getInt() != MAGICO || entrada.getInt() != VERSAO)
+				return ignora();
+			this.sequencia = entrada.getLong();
+			this.posicaoRegistro = entrada.getLong();
+			sistema.le(entrada);
+			return true;
+		} catch (NoSuchFileException nsfe) {
+			return false;
+		} catch (IOException ioe) {
+			throw new IllegalArgumentException("Erro na recuperacao do sistema: imagem nao pode ser lida.");
+		} catch (RuntimeException re) {
+			return ignora();
+		}
+	}
+
+	/**
+	 * Anota na saida de erro que a imagem e invalida e sera ignorada.
+	 *
+	 * @return e retornado false, indicando que a imagem nao foi carregada.
+	 */
+	private boolean ignora() {
+		System.err.println("Erro na recuperacao do sistema: imagem invalida, registro de operacoes sera reaplicado.");
+		return false;
+	}
+
+	/**
+	 * Codifica o estado do sistema em uma imagem.
+	 *
+	 * @param sistema         e o sistema a ser codificado.
+	 * @param sequencia       e a sequencia da ultima operacao aplicada ao sistema.
+	 * @param posicaoRegistro e a posicao do registro de operacoes logo apos essa
+	 *                        operacao.
+	 * @return e retornado os bytes da imagem.
+	 */
+	public static byte[] codifica(Sistema sistema, long sequencia, long posicaoRegistro) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream saida = new DataOutputStream(bytes)) {
+			saida.writeInt(MAGICO);
+			saida.writeInt(VERSAO);
+			saida.writeLong(sequencia);
+			saida.writeLong(posicaoRegistro);
+			sistema.escreve(saida);
+		} catch (IOException ioe) {
+			throw new IllegalArgumentException("Erro na gravacao da imagem do sistema: imagem nao pode ser escrita.");
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Grava em segundo plano uma imagem ja codificada. A imagem e escrita em um
+	 * arquivo temporario que, ao final, substitui o arquivo da imagem. Caso uma
+	 * gravacao anterior ainda esteja em andamento, ela e aguardada antes.
+	 *
+	 * @param dados e a imagem codificada.
+	 */
+	public void salva(final byte[] dados) {
+		aguarda();
+		this.gravacao = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				grava(dados);
+			}
+		}, "gravacao-imagem");
+		this.gravacao.start();
+	}
+
+	/**
+	 * Aguarda a gravacao em andamento terminar.
+	 *
+	 * Caso a ultima gravacao tenha falhado sera lancado um
+	 * IllegalArgumentException: "Erro na gravacao da imagem do sistema: imagem nao
+	 * pode ser escrita."
+	 */
+	public void aguarda() {
+		if (this.gravacao != null) {
+			boolean interrompida = false;
+			while (this.gravacao.isAlive()) {
+				try {
+					this.gravacao.join();
+				} catch (InterruptedException ie) {
+					interrompida = true;
+				}
+			}
+			if (interrompida)
+				Thread.currentThread().interrupt();
+			this.gravacao = null;
+		}
+		if (this.erroGravacao != null) {
+			this.erroGravacao = null;
+			throw new IllegalArgumentException("Erro na gravacao da imagem do sistema: imagem nao pode ser escrita.");
+		}
+	}
+
+	/**
+	 * Escreve a imagem no arquivo temporario, forca sua gravacao no disco e o move
+	 * para o lugar do arquivo da imagem.
+	 *
+	 * @param dados e a imagem codificada.
+	 */
+	private void grava(byte[] dados) {
+		Path temporario = this.arquivo.resolveSibling(this.arquivo.getFileName() + ".tmp");
+		try {
+			try (FileOutputStream saida = new FileOutputStream(temporario.toFile())) {
+				saida.write(dados);
+				saida.getFD().sync();
+			}
+			Files.move(temporario, this.arquivo, StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException ioe) {
+			this.erroGravacao = ioe;
+		}
+	}
+
+	public long getSequencia() {
+		return this.sequencia;
+	}
+
+	public long getPosicaoRegistro() {
+		return this.posicaoRegistro;
+	}
+
+	/**
+	 * Escreve um texto na imagem, como o tamanho em bytes seguido dos bytes em
+	 * UTF-8.
+	 *
+	 * @param saida e a saida da imagem.
+	 * @param texto e o texto a ser escrito.
+	 * @throws IOException caso a saida nao possa ser escrita.
+	 */
+	public static void escreveTexto(DataOutputStream saida, String texto) throws IOException {
+		byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+		saida.writeInt(bytes.length);
+		saida.write(bytes);
+	}
+
+	/**
+	 * Le um texto da imagem, escrito por
+	 * {@link saga.ImagemSistema#escreveTexto(DataOutputStream, String)}.
+	 *
+	 * @param entrada e a entrada da imagem.
+	 * @return e retornado o texto lido.
+	 */
+	public static String leTexto(ByteBuffer entrada) {
+		byte[] bytes = new byte[entrada.getInt()];
+		entrada.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,101 @@
+package saga;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.TreeSet;
+
+/**
+ * Representacao do indice de compras em aberto do sistema. Para cada criterio
+ * de listagem (Cliente, Fornecedor e Data) o indice mantem as compras ja
+ * ordenadas, e e atualizado a cada compra adicionada, quitada ou removida.
+ * Assim, a listagem das compras apenas percorre o conjunto do criterio atual,
+ * sem reordenar todas as compras.
+ *
+ * Compras que o criterio considera iguais sao desempatadas pelo fornecedor e
+ * pela linha da compra no armazem do fornecedor, para que nenhuma compra seja
+ * descartada pelo conjunto.
+ *
+ * @author Pedro Henrique
+ */
+public class IndiceCompras {
+
+	/**
+	 * Armazena no mapa de ordenacoes o nome do criterio, conjunto das compras
+	 * ordenadas pelo criterio.
+	 */
+	private HashMap<String, TreeSet<Compra>> ordenacoes;
+
+	/**
+	 * Constroi o indice com um conjunto vazio para cada criterio.
+	 */
+	public IndiceCompras() {
+		this.ordenacoes = new HashMap<>();
+		this.ordenacoes.put("Cliente", new TreeSet<>(desempata(new OrdenaCliente())));
+		this.ordenacoes.put("Fornecedor", new TreeSet<>(desempata(new OrdenaFornecedor())));
+		this.ordenacoes.put("Data", new TreeSet<>(desempata(new OrdenaData())));
+	}
+
+	/**
+	 * Adiciona compras ao indice.
+	 *
+	 * @param compras e a colecao de compras.
+	 */
+	public void adicionaCompras(Collection<Compra> compras) {
+		for (TreeSet<Compra> ordenacao : this.ordenacoes.values())
+			ordenacao.addAll(compras);
+	}
+
+	/**
+	 * Adiciona uma compra ao indice.
+	 *
+	 * @param compra e a compra.
+	 */
+	public void adicionaCompra(Compra compra) {
+		for (TreeSet<Compra> ordenacao : this.ordenacoes.values())
+			ordenacao.add(compra);
+	}
+
+	/**
+	 * Remove compras do indice.
+	 *
+	 * @param compras e a colecao de compras.
+	 */
+	public void removeCompras(Collection<Compra> compras) {
+		for (TreeSet<Compra> ordenacao : this.ordenacoes.values())
+			for (Compra compra : compras)
+				ordenacao.remove(compra);
+	}
+
+	/**
+	 * Retorna as compras em aberto ordenadas por um criterio.
+	 *
+	 * @param criterio e o nome do criterio.
+	 * @return e retornado o conjunto ordenado das compras.
+	 */
+	public Collection<Compra> getCompras(String criterio) {
+		return this.ordenacoes.get(criterio);
+	}
+
+	/**
+	 * Cria um comparador que usa o criterio e, em caso de empate, compara o
+	 * fornecedor e a linha das compras.
+	 *
+	 * @param criterio e o criterio de ordenacao.
+	 * @return e retornado o comparador.
+	 */
+	private static Comparator<Compra> desempata(final Criterio criterio) {
+		return new Comparator<Compra>() {
+			@Override
+			public int compare(Compra o1, Compra o2) {
+				int comparacao = criterio.compare(o1, o2);
+				if (comparacao != 0)
+					return comparacao;
+				comparacao = o1.getFornecedor().compareTo(o2.getFornecedor());
+				if (comparacao != 0)
+					return comparacao;
+				return Integer.compare(o1.getLinha(), o2.getLinha());
+			}
+		};
+	}
+}
@@ -0,0 +1,200 @@
+package saga;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Representacao do indice de produtos do sistema. O indice mapeia cada produto
+ * aos fornecedores que o vendem e cada termo presente nos nomes e descricoes
+ * dos produtos as ofertas que o possuem. E mantido atualizado a cada adicao e
+ * remocao de produtos, permitindo consultar quais fornecedores vendem um
+ * produto e buscar produtos por texto sem percorrer todos os fornecedores.
+ *
+ * @author Pedro Henrique
+ */
+public class IndiceProdutos {
+
+	/**
+	 * Armazena no mapa de ofertas o IdProduto, mapa do nome do fornecedor,
+	 * Produto. Os fornecedores de cada produto sao mantidos em ordem alfabetica.
+	 */
+	private HashMap<IdProduto, TreeMap<String, Produto>> ofertas;
+
+	/**
+	 * Armazena no mapa de termos o termo, conjunto de ofertas cujo nome ou
+	 * descricao possuem o termo. Os termos sao mantidos em ordem para permitir a
+	 * busca por prefixo.
+	 */
+	private TreeMap<String, HashSet<OfertaProduto>> termos;
+
+	/**
+	 * Constroi os mapas de ofertas e de termos.
+	 */
+	public IndiceProdutos() {
+		this.ofertas = new HashMap<>();
+		this.termos = new TreeMap<>();
+	}
+
+	/**
+	 * Adiciona ao indice um produto vendido por um fornecedor.
+	 *
+	 * @param fornecedor e o nome do fornecedor.
+	 * @param produto    e o produto do fornecedor.
+	 */
+	public void adicionaProduto(String fornecedor, Produto produto) {
+		TreeMap<String, Produto> fornecedores = this.ofertas.get(produto.getId());
+		if (fornecedores == null) {
+			fornecedores = new TreeMap<>();
+			this.ofertas.put(produto.getId(), fornecedores);
+		}
+		fornecedores.put(fornecedor, produto);
+
+		OfertaProduto oferta = new OfertaProduto(fornecedor, produto);
+		for (String termo : termosDoProduto(produto.getId())) {
+			HashSet<OfertaProduto> comTermo = this.termos.get(termo);
+			if (comTermo == null) {
+				comTermo = new HashSet<>();
+				this.termos.put(termo, comTermo);
+			}
+			comTermo.add(oferta);
+		}
+	}
+
+	/**
+	 * Remove do indice um produto vendido por um fornecedor.
+	 *
+	 * @param fornecedor e o nome do fornecedor.
+	 * @param id         e o id do produto.
+	 */
+	public void removeProduto(String fornecedor, IdProduto id) {
+		TreeMap<String, Produto> fornecedores = this.ofertas.get(id);
+		if (fornecedores == null)
+			return;
+		Produto produto = fornecedores.remove(fornecedor);
+		if (fornecedores.isEmpty())
+			this.ofertas.remove(id);
+		if (produto == null)
+			return;
+
+		OfertaProduto oferta = new OfertaProduto(fornecedor, produto);
+		for (String termo : termosDoProduto(id)) {
+			HashSet<OfertaProduto> comTermo = this.termos.get(termo);
+			if (comTermo == null)
+				continue;
+			comTermo.remove(oferta);
+			if (comTermo.isEmpty())
+				this.termos.remove(termo);
+		}
+	}
+
+	/**
+	 * Retorna um boolean indicando se algum fornecedor vende o produto indicado.
+	 *
+	 * @param id e o id do produto.
+	 * @return e retornado true caso algum fornecedor venda o produto, caso
+	 *         contrario, false.
+	 */
+	public boolean existeProduto(IdProduto id) {
+		return this.ofertas.containsKey(id);
+	}
+
+	/**
+	 * Lista todos os fornecedores que vendem um produto, em ordem alfabetica, no
+	 * formato: FORNECEDOR1 - NOME - DESCRICAO - R$X,XX | FORNECEDOR2 - NOME -
+	 * DESCRICAO - R$Y,YY
+	 *
+	 * @param id e o id do produto.
+	 * @return e retornado a representacao dos produtos de cada fornecedor, ou uma
+	 *         String vazia caso nenhum fornecedor venda o produto.
+	 */
+	public String listaFornecedores(IdProduto id) {
+		TreeMap<String, Produto> fornecedores = this.ofertas.get(id);
+		if (fornecedores == null)
+			return "";
+		StringBuilder resultado = new StringBuilder();
+		Iterator<Map.Entry<String, Produto>> it = fornecedores.entrySet().iterator();
+		while (it.hasNext()) {
+			Map.Entry<String, Produto> elemento = it.next();
+			resultado.append(elemento.getKey()).append(" - ").append(elemento.getValue().toString());
+			if (it.hasNext())
+				resultado.append(" | ");
+		}
+		return resultado.toString();
+	}
+
+	/**
+	 * Busca as ofertas cujo nome ou descricao possuam termos que comecem com os
+	 * termos da consulta. Cada termo da consulta e tratado como um prefixo. As
+	 * ofertas sao ordenadas pela quantidade de termos da consulta que satisfazem,
+	 * da maior para a menor, e em caso de empate pelo fornecedor e pelo produto.
+	 *
+	 * @param consulta e o texto da busca.
+	 * @return e retornado a lista de ofertas encontradas, ordenadas pela
+	 *         relevancia.
+	 */
+	public ArrayList<OfertaProduto> busca(String consulta) {
+		final HashMap<OfertaProduto, Integer> pontuacao = new HashMap<>();
+		for (String prefixo : separaTermos(consulta)) {
+			HashSet<OfertaProduto> encontradas = new HashSet<>();
+			for (HashSet<OfertaProduto> comTermo : this.termos
+					.subMap(prefixo, true, prefixo + Character.MAX_VALUE, false).values())
+				encontradas.addAll(comTermo);
+			for (OfertaProduto oferta : encontradas) {
+				Integer pontos = pontuacao.get(oferta);
+				pontuacao.put(oferta, pontos == null ? 1 : pontos + 1);
+			}
+		}
+
+		ArrayList<OfertaProduto> resultado = new ArrayList<>(pontuacao.keySet());
+		Collections.sort(resultado, new Comparator<OfertaProduto>() {
+			@Override
+			public int compare(OfertaProduto o1, OfertaProduto o2) {
+				int comparacao = pontuacao.get(o2).compareTo(pontuacao.get(o1));
+				if (comparacao != 0)
+					return comparacao;
+				return o1.compareTo(o2);
+			}
+		});
+		return resultado;
+	}
+
+	/**
+	 * Recupera os termos distintos do nome e da descricao de um produto.
+	 *
+	 * @param id e o id do produto.
+	 * @return e retornado o conjunto de termos do produto.
+	 */
+	private HashSet<String> termosDoProduto(IdProduto id) {
+		HashSet<String> termosProduto = separaTermos(id.getNome());
+		termosProduto.addAll(separaTermos(id.getDescricao()));
+		return termosProduto;
+	}
+
+	/**
+	 * Separa um texto em termos. Um termo e uma sequencia de letras ou digitos,
+	 * convertida para letras minusculas.
+	 *
+	 * @param texto e o texto a ser separado.
+	 * @return e retornado o conjunto de termos distintos do texto.
+	 */
+	private static HashSet<String> separaTermos(String texto) {
+		HashSet<String> termosTexto = new HashSet<>();
+		int inicio = -1;
+		for (int i = 0; i <= texto.length(); i++) {
+			boolean parteDoTermo = i < texto.length() && Character.isLetterOrDigit(texto.charAt(i));
+			if (parteDoTermo && inicio < 0) {
+				inicio = i;
+			} else if (!parteDoTermo && inicio >= 0) {
+				termosTexto.add(texto.substring(inicio, i).toLowerCase());
+				inicio = -1;
+			}
+		}
+		return termosTexto;
+	}
+}
@@ -0,0 +1,95 @@
+package saga;
+
+/**
+ * Representacao de uma oferta de produto, ou seja, um produto vendido por um
+ * determinado fornecedor. Ofertas sao identificadas pelo nome do fornecedor e
+ * pelo id do produto, e sao ordenadas pelo fornecedor e depois pelo produto.
+ *
+ * @author Pedro Henrique
+ */
+public class OfertaProduto implements Comparable<OfertaProduto> {
+
+	/**
+	 * Armazena o nome do fornecedor que vende o produto.
+	 */
+	private String fornecedor;
+
+	/**
+	 * Armazena o produto ofertado.
+	 */
+	private Produto produto;
+
+	/**
+	 * Constroi uma oferta a partir do nome do fornecedor e do produto.
+	 *
+	 * @param fornecedor e o nome do fornecedor.
+	 * @param produto    e o produto do fornecedor.
+	 */
+	public OfertaProduto(String fornecedor, Produto produto) {
+		this.fornecedor = fornecedor;
+		this.produto = produto;
+	}
+
+	public String getFornecedor() {
+		return this.fornecedor;
+	}
+
+	public Produto getProduto() {
+		return this.produto;
+	}
+
+	/**
+	 * Representacao toString da oferta, no formato: FORNECEDOR - NOME - DESCRICAO -
+	 * R$X,XX
+	 */
+	@Override
+	public String toString() {
+		return this.fornecedor + " - " + this.produto.toString();
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((fornecedor == null) ? 0 : fornecedor.hashCode());
+		result = prime * result + ((produto == null) ? 0 : produto.hashCode());
+		return result;
+	}
+
+	/**
+	 * Compara se duas ofertas sao iguais pelo fornecedor e pelo produto.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		OfertaProduto other = (OfertaProduto) obj;
+		if (fornecedor == null) {
+			if (other.fornecedor != null)
+				return false;
+		} else if (!fornecedor.equals(other.fornecedor))
+			return false;
+		if (produto == null) {
+			if (other.produto != null)
+				return false;
+		} else if (!produto.getId().equals(other.produto.getId()))
+			return false;
+		return true;
+	}
+
+	/**
+	 * Compara duas ofertas pelo nome do fornecedor. Caso os fornecedores sejam
+	 * iguais serao comparados os produtos.
+	 */
+	@Override
+	public int compareTo(OfertaProduto o) {
+		int comparacao = this.fornecedor.compareTo(o.fornecedor);
+		if (comparacao != 0)
+			return comparacao;
+		return this.produto.compareTo(o.produto);
+	}
+}
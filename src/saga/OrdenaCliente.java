@@ -1,6 +1,6 @@
 package saga;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 
 /**
@@ -11,35 +11,37 @@ import java.util.Iterator;
 public class OrdenaCliente implements Criterio {
 
 	/**
-	 * Compara duas compras pelo nome do cliente. Caso os nome sejam iguais serao
-	 * comparados o nome do fornecedor + descricao + data.
+	 * Compara duas compras pelo nome do cliente. Caso os nome sejam iguais sera
+	 * comparado o texto fornecedor + descricao + data, sem criar o texto.
 	 */
 	@Override
 	public int compare(Compra o1, Compra o2) {
-		if (o1.getCliente().compareTo(o2.getCliente()) == 0) {
-			return (o1.getFornecedor() + o1.getDescricao() + o1.getData())
-					.compareTo(o2.getFornecedor() + o2.getDescricao() + o2.getData());
-		}
-		return o1.getCliente().compareTo(o2.getCliente());
+		int comparacao = o1.getCliente().compareTo(o2.getCliente());
+		if (comparacao == 0)
+			comparacao = Desempate.compara(o1.getFornecedor(), o1.getDescricao(), o1.getDiaEpoca(),
+					o2.getFornecedor(), o2.getDescricao(), o2.getDiaEpoca());
+		return comparacao;
 	}
 
 	/**
 	 * Ordena pelos clientes, depois pelo fornecdor + descricao + data.
 	 */
 	@Override
-	public String listaCompras(ArrayList<Compra> compras) {
-		String resultado = "";
+	public String listaCompras(Collection<Compra> compras) {
+		StringBuilder resultado = new StringBuilder();
 		Iterator<Compra> it = compras.iterator();
 		while (it.hasNext()) {
 			Compra compra = it.next();
-			if (it.hasNext()) {
-				resultado += String.format("%s, %s, %s, %s", compra.getCliente(), compra.getFornecedor(),
-						compra.getDescricao(), compra.getData().replace("-", "/")) + " | ";
-			} else {
-				resultado += String.format("%s, %s, %s, %s", compra.getCliente(), compra.getFornecedor(),
-						compra.getDescricao(), compra.getData().replace("-", "/"));
-			}
+			resultado.append(compra.getCliente());
+			resultado.append(", ");
+			resultado.append(compra.getFornecedor());
+			resultado.append(", ");
+			resultado.append(compra.getDescricao());
+			resultado.append(", ");
+			resultado.append(compra.getData().replace('-', '/'));
+			if (it.hasNext())
+				resultado.append(" | ");
 		}
-		return resultado;
+		return resultado.toString();
 	}
 }
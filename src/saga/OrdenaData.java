@@ -1,59 +1,113 @@
 package saga;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 
 /**
- * Ordenacao pelas datas.
+ * Ordenacao pelas datas. As datas sao comparadas como dias epoca, sem
+ * conversoes de texto.
  * 
  * @author Pedro Henrique
  */
 public class OrdenaData implements Criterio {
 
 	/**
-	 * Compara duas datas pela sua ordem de precedencia.
+	 * Compara duas compras de mesma data pelo texto cliente + fornecedor +
+	 * descricao, sem criar o texto.
+	 */
+	private static final Comparator<Compra> DESEMPATE = new Comparator<Compra>() {
+		@Override
+		public int compare(Compra o1, Compra o2) {
+			return Desempate.compara(o1.getCliente(), o1.getFornecedor(), o1.getDescricao(), o2.getCliente(),
+					o2.getFornecedor(), o2.getDescricao());
+		}
+	};
+
+	/**
+	 * Compara duas datas pela sua ordem de precedencia. Caso as datas sejam iguais
+	 * serao comparados o nome do cliente + fornecedor + descricao.
 	 */
 	@Override
 	public int compare(Compra o1, Compra o2) {
-		SimpleDateFormat sdf = new SimpleDateFormat("dd-MM-yyyy");
-		Date data1 = new Date();
-		Date data2 = new Date();
-		try {
-			data1 = sdf.parse(o1.getData());
-			data2 = sdf.parse(o2.getData());
-		} catch (ParseException e) {
-			e.printStackTrace();
+		int comparacao = Integer.compare(o1.getDiaEpoca(), o2.getDiaEpoca());
+		if (comparacao == 0)
+			return DESEMPATE.compare(o1, o2);
+		return comparacao;
+	}
+
+	/**
+	 * Ordena compras pela data em tempo linear, distribuindo-as em um balde por
+	 * dia entre a menor e a maior data. Apenas as compras de um mesmo dia sao
+	 * comparadas entre si, pelo desempate do criterio. Caso o intervalo de dias seja
+	 * muito maior que a quantidade de compras, as compras sao ordenadas por
+	 * comparacao.
+	 * 
+	 * @param compras e a colecao de compras a ser ordenada.
+	 * @return e retornado a lista das compras ordenadas pela data.
+	 */
+	public static ArrayList<Compra> ordena(Collection<Compra> compras) {
+		ArrayList<Compra> ordenadas = new ArrayList<>(compras.size());
+		if (compras.isEmpty())
+			return ordenadas;
+		int menor = Integer.MAX_VALUE;
+		int maior = Integer.MIN_VALUE;
+		for (Compra compra : compras) {
+			menor = Math.min(menor, compra.getDiaEpoca());
+			maior = Math.max(maior, compra.getDiaEpoca());
+		}
+		long dias = (long) maior - menor + 1;
+		if (dias > 4L * compras.size() + 1024) {
+			ordenadas.addAll(compras);
+			Collections.sort(ordenadas, new OrdenaData());
+			return ordenadas;
+		}
+
+		int[] fins = new int[(int) dias];
+		for (Compra compra : compras)
+			fins[compra.getDiaEpoca() - menor]++;
+		int posicao = 0;
+		for (int dia = 0; dia < fins.length; dia++) {
+			int quantidade = fins[dia];
+			fins[dia] = posicao;
+			posicao += quantidade;
 		}
+		Compra[] baldes = new Compra[compras.size()];
+		for (Compra compra : compras)
+			baldes[fins[compra.getDiaEpoca() - menor]++] = compra;
 
-		if (data1.equals(data2)) {
-			return (o1.getCliente() + o1.getFornecedor() + o1.getDescricao())
-					.compareTo(o2.getCliente() + o2.getFornecedor() + o2.getDescricao());
+		int inicio = 0;
+		for (int dia = 0; dia < fins.length; dia++) {
+			if (fins[dia] - inicio > 1)
+				Arrays.sort(baldes, inicio, fins[dia], DESEMPATE);
+			inicio = fins[dia];
 		}
-		if (data1.before(data2))
-			return -1;
-		return 1;
+		Collections.addAll(ordenadas, baldes);
+		return ordenadas;
 	}
 
 	/**
 	 * Ordena pelos clientes, depois pelo fornecdor + descricao + data.
 	 */
 	@Override
-	public String listaCompras(ArrayList<Compra> compras) {
-		String resultado = "";
+	public String listaCompras(Collection<Compra> compras) {
+		StringBuilder resultado = new StringBuilder();
 		Iterator<Compra> it = compras.iterator();
 		while (it.hasNext()) {
 			Compra compra = it.next();
-			if (it.hasNext()) {
-				resultado += String.format("%s, %s, %s, %s", compra.getData().replace("-", "/"), compra.getCliente(),
-						compra.getFornecedor(), compra.getDescricao()) + " | ";
-			} else {
-				resultado += String.format("%s, %s, %s, %s", compra.getData().replace("-", "/"), compra.getCliente(),
-						compra.getFornecedor(), compra.getDescricao());
-			}
+			resultado.append(compra.getData().replace('-', '/'));
+			resultado.append(", ");
+			resultado.append(compra.getCliente());
+			resultado.append(", ");
+			resultado.append(compra.getFornecedor());
+			resultado.append(", ");
+			resultado.append(compra.getDescricao());
+			if (it.hasNext())
+				resultado.append(" | ");
 		}
-		return resultado;
+		return resultado.toString();
 	}
 }
@@ -1,6 +1,6 @@
 package saga;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 
 /**
@@ -11,35 +11,37 @@ import java.util.Iterator;
 public class OrdenaFornecedor implements Criterio {
 
 	/**
-	 * Compara duas compras pelo nome do fornecedor. Caso os nome sejam iguais serao
-	 * comparados o nome do cliente + descricao + data.
+	 * Compara duas compras pelo nome do fornecedor. Caso os nome sejam iguais sera
+	 * comparado o texto cliente + descricao + data, sem criar o texto.
 	 */
 	@Override
 	public int compare(Compra o1, Compra o2) {
-		if (o1.getFornecedor().compareTo(o2.getFornecedor()) == 0) {
-			return (o1.getCliente() + o1.getDescricao() + o1.getData())
-					.compareTo(o2.getCliente() + o2.getDescricao() + o2.getData());
-		}
-		return o1.getFornecedor().compareTo(o2.getFornecedor());
+		int comparacao = o1.getFornecedor().compareTo(o2.getFornecedor());
+		if (comparacao == 0)
+			comparacao = Desempate.compara(o1.getCliente(), o1.getDescricao(), o1.getDiaEpoca(), o2.getCliente(),
+					o2.getDescricao(), o2.getDiaEpoca());
+		return comparacao;
 	}
 
 	/**
 	 * Ordena pelos fornecedores, depois pelo cliente + descricao + data.
 	 */
 	@Override
-	public String listaCompras(ArrayList<Compra> compras) {
-		String resultado = "";
+	public String listaCompras(Collection<Compra> compras) {
+		StringBuilder resultado = new StringBuilder();
 		Iterator<Compra> it = compras.iterator();
 		while (it.hasNext()) {
 			Compra compra = it.next();
-			if (it.hasNext()) {
-				resultado += String.format("%s, %s, %s, %s", compra.getFornecedor(), compra.getCliente(),
-						compra.getDescricao(), compra.getData().replace("-", "/")) + " | ";
-			} else {
-				resultado += String.format("%s, %s, %s, %s", compra.getFornecedor(), compra.getCliente(),
-						compra.getDescricao(), compra.getData().replace("-", "/"));
-			}
+			resultado.append(compra.getFornecedor());
+			resultado.append(", ");
+			resultado.append(compra.getCliente());
+			resultado.append(", ");
+			resultado.append(compra.getDescricao());
+			resultado.append(", ");
+			resultado.append(compra.getData().replace('-', '/'));
+			if (it.hasNext())
+				resultado.append(" | ");
 		}
-		return resultado;
+		return resultado.toString();
 	}
 }
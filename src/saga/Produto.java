@@ -15,9 +15,16 @@ public class Produto implements Comparable<Produto> {
 	protected IdProduto id;
 
 	/**
-	 * Representa o preco do produto. Nao pode ser menor que ou igual a 0.
+	 * Representa o preco do produto em centavos. Nao pode ser menor que ou igual a
+	 * 0.
 	 */
-	protected double preco;
+	protected long preco;
+
+	/**
+	 * Armazena a representacao textual do produto. E construida na primeira vez que
+	 * for pedida e descartada sempre que o preco exibido mudar.
+	 */
+	private String representacao;
 
 	/**
 	 * Constroi um produto a partir do preco recebido e de um id que e gerado a
@@ -31,11 +38,48 @@ public class Produto implements Comparable<Produto> {
 	 * @param preco     e o preco do produto.
 	 */
 	public Produto(String nome, String descricao, double preco) {
+		this(new IdProduto(nome, descricao), preco);
+	}
+
+	/**
+	 * Constroi um produto a partir do preco recebido e de um id ja existente.
+	 * 
+	 * Caso o preco seja menor que ou igual a 0 sera lancado um
+	 * IllegalArgumentException: "Erro na criacao de produto: preco invalido."
+	 * 
+	 * @param id    e o id que identificara o produto.
+	 * @param preco e o preco do produto.
+	 */
+	public Produto(IdProduto id, double preco) {
 		if (preco <= 0)
 			throw new IllegalArgumentException("Erro na criacao de produto: preco invalido.");
 
-		this.id = new IdProduto(nome, descricao);
-		this.preco = preco;
+		this.id = id;
+		this.preco = Dinheiro.paraCentavos(preco);
+	}
+
+	/**
+	 * Constroi um produto a partir de um id ja existente e de um preco ja em
+	 * centavos, sem validacao. E utilizado ao ler a imagem do sistema.
+	 * 
+	 * @param id    e o id que identificara o produto.
+	 * @param preco e o preco do produto em centavos.
+	 * @return e retornado o produto construido.
+	 */
+	static Produto deCentavos(IdProduto id, long preco) {
+		Produto produto = new Produto(id);
+		produto.preco = preco;
+		return produto;
+	}
+
+	/**
+	 * Constroi um produto a partir de um id ja existente, sem definir o preco. O
+	 * preco deve ser definido pela subclasse.
+	 * 
+	 * @param id e o id que identificara o produto.
+	 */
+	protected Produto(IdProduto id) {
+		this.id = id;
 	}
 
 	/**
@@ -49,24 +93,50 @@ public class Produto implements Comparable<Produto> {
 		if (preco <= 0)
 			throw new IllegalArgumentException("Erro na edicao de produto: preco invalido.");
 
-		this.preco = preco;
+		this.preco = Dinheiro.paraCentavos(preco);
+		this.invalidaRepresentacao();
+	}
+
+	/**
+	 * Descarta a representacao textual armazenada, fazendo com que ela seja
+	 * construida novamente na proxima chamada de toString. Deve ser chamado sempre
+	 * que o preco exibido do produto mudar.
+	 */
+	protected void invalidaRepresentacao() {
+		this.representacao = null;
+	}
+
+	/**
+	 * Retorna o preco exibido na representacao do produto, em centavos.
+	 * 
+	 * @return e retornado o preco exibido do produto em centavos.
+	 */
+	protected long getPrecoExibido() {
+		return this.preco;
 	}
 
 	/**
-	 * Retorna o preco atual.
+	 * Retorna o preco atual em centavos.
 	 * 
-	 * @return retorna o preco do produto.
+	 * @return retorna o preco do produto em centavos.
 	 */
-	public double getPreco() {
+	public long getPreco() {
 		return this.preco;
 	}
 
+	public IdProduto getId() {
+		return this.id;
+	}
+
 	/**
 	 * Representacao toString o produto, no formato: NOME - DESCRICAO - R$X,XX
 	 */
 	@Override
 	public String toString() {
-		return String.format("%s - R$%.2f", this.id.toString(), getPreco()).replace(".", ",");
+		if (this.representacao == null)
+			this.representacao = (this.id.toString() + " - R$" + Dinheiro.formata(getPrecoExibido(), ','))
+					.replace(".", ",");
+		return this.representacao;
 	}
 
 	@Override
@@ -98,12 +168,14 @@ public class Produto implements Comparable<Produto> {
 	}
 
 	/**
-	 * Compara dois produtos ao comparar seus nomes.
+	 * Compara dois produtos ao comparar seus ids, ou seja, pelo nome e depois pela
+	 * descricao.
 	 * 
-	 * @return e retornado -1, 0 ou 1 dependendo da ordem lexicografica dos nomes.
+	 * @return e retornado um valor negativo, 0 ou positivo dependendo da ordem
+	 *         lexicografica dos ids.
 	 */
 	@Override
 	public int compareTo(Produto o) {
-		return this.id.getNome().compareTo(o.id.getNome());
+		return this.id.compareTo(o.id);
 	}
 }
@@ -1,8 +1,11 @@
 package saga;
 
+import java.util.ArrayList;
+
 /**
  * Representacao de um combo de produtos. Cada combo herda de Produto (possui
- * nome, descricao e preco), alem de possui um fator.
+ * nome, descricao e preco), alem de possui um fator e a lista de produtos que o
+ * compoem. O preco do combo e a soma dos precos de seus produtos.
  * 
  * @author Pedro Henrique
  */
@@ -14,38 +17,80 @@ public class ProdutoCombo extends Produto implements Comparable<Produto> {
 	private double fator;
 
 	/**
-	 * Constroi um Combo a partir dos atributos do Produto e a partir do fator.
+	 * Armazena os produtos que compoem o combo.
+	 */
+	private ArrayList<Produto> componentes;
+
+	/**
+	 * Constroi um Combo a partir de um id ja existente, do fator e dos produtos que
+	 * o compoem. O preco do combo e a soma dos precos dos componentes.
 	 * 
-	 * @param nome      e o nome do combo.
-	 * @param descricao e a descricao do combo.
-	 * @param preco     e o preco do combo.
-	 * @param fator     e o fator de desconto do combo.
-	 * @param produtos  e a lista de produtos que formam o combo.
-	 */
-	public ProdutoCombo(String nome, String descricao, double preco, double fator, String produtos) {
-		super(nome, descricao, preco);
+	 * @param id          e o id que identificara o combo.
+	 * @param fator       e o fator de desconto do combo.
+	 * @param componentes e a lista de produtos que formam o combo.
+	 */
+	public ProdutoCombo(IdProduto id, double fator, ArrayList<Produto> componentes) {
+		super(id);
+		this.preco = somaPrecos(componentes);
 		this.fator = fator;
+		this.componentes = componentes;
 	}
 
 	/**
-	 * Retorna o preco do combo ao realizar o produto do preco pelo fator de
-	 * desconto.
+	 * Soma os precos, em centavos, de uma lista de produtos.
 	 * 
-	 * @return e retornado o preco do combo.
+	 * @param produtos e a lista de produtos.
+	 * @return e retornado a soma dos precos em centavos.
 	 */
-	public double getPrecoCombo() {
-		return this.preco * (1 - this.fator);
+	private static long somaPrecos(ArrayList<Produto> produtos) {
+		long preco = 0;
+		for (Produto p : produtos)
+			preco += p.getPreco();
+		return preco;
+	}
+
+	/**
+	 * Recalcula o preco do combo a partir dos precos atuais de seus componentes.
+	 * Deve ser chamado quando o preco de algum componente for alterado.
+	 */
+	public void atualizaPreco() {
+		this.preco = somaPrecos(this.componentes);
+		this.invalidaRepresentacao();
+	}
+
+	/**
+	 * Retorna os produtos que compoem o combo.
+	 * 
+	 * @return e retornado a lista de componentes.
+	 */
+	public ArrayList<Produto> getComponentes() {
+		return this.componentes;
+	}
+
+	/**
+	 * Retorna o preco do combo, em centavos, ao aplicar o fator de desconto sobre
+	 * o preco.
+	 * 
+	 * @return e retornado o preco do combo em centavos.
+	 */
+	public long getPrecoCombo() {
+		return Dinheiro.aplicaDesconto(this.preco, this.fator);
+	}
+
+	public double getFator() {
+		return this.fator;
 	}
 
 	public void editaCombo(double fator) {
 		this.fator = fator;
+		this.invalidaRepresentacao();
 	}
 
 	/**
-	 * Representacao toString o produto, no formato: NOME - DESCRICAO - R$X,XX
+	 * O preco exibido de um combo e o preco com o fator de desconto aplicado.
 	 */
 	@Override
-	public String toString() {
-		return String.format("%s - R$%.2f", this.id.toString(), getPrecoCombo()).replace(".", ",");
+	protected long getPrecoExibido() {
+		return this.getPrecoCombo();
 	}
 }
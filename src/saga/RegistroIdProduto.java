@@ -0,0 +1,79 @@
+package saga;
+
+import java.util.HashMap;
+
+/**
+ * Representacao do registro de ids de produtos. O registro entrega um unico
+ * IdProduto compartilhado para cada par nome e descricao, permitindo que as
+ * buscas no catalogo sejam feitas sem construir novos ids.
+ *
+ * @author Pedro Henrique
+ */
+public class RegistroIdProduto {
+
+	/**
+	 * Armazena no mapa de ids o nome do produto, mapa da descricao do produto,
+	 * IdProduto.
+	 */
+	private HashMap<String, HashMap<String, IdProduto>> ids;
+
+	/**
+	 * Constroi o mapa de ids.
+	 */
+	public RegistroIdProduto() {
+		this.ids = new HashMap<>();
+	}
+
+	/**
+	 * Recupera o id canonico de um produto a partir de seu nome e descricao. Caso o
+	 * id nao esteja registrado sera retornado null. Nenhum objeto e criado nesta
+	 * consulta.
+	 *
+	 * @param nome      e o nome do produto.
+	 * @param descricao e a descricao do produto.
+	 * @return e retornado o id registrado ou null caso ele nao exista.
+	 */
+	public IdProduto recuperaId(String nome, String descricao) {
+		HashMap<String, IdProduto> descricoes = this.ids.get(nome);
+		if (descricoes == null)
+			return null;
+		return descricoes.get(descricao);
+	}
+
+	/**
+	 * Registra o id de um produto a partir de seu nome e descricao. Caso o id ja
+	 * esteja registrado sera retornado o id existente.
+	 *
+	 * @param nome      e o nome do produto.
+	 * @param descricao e a descricao do produto.
+	 * @return e retornado o id canonico do produto.
+	 */
+	public IdProduto registraId(String nome, String descricao) {
+		HashMap<String, IdProduto> descricoes = this.ids.get(nome);
+		if (descricoes == null) {
+			descricoes = new HashMap<>();
+			this.ids.put(nome, descricoes);
+		}
+		IdProduto id = descricoes.get(descricao);
+		if (id == null) {
+			id = new IdProduto(nome, descricao);
+			descricoes.put(descricao, id);
+		}
+		return id;
+	}
+
+	/**
+	 * Remove o id de um produto do registro a partir de seu nome e descricao.
+	 *
+	 * @param nome      e o nome do produto.
+	 * @param descricao e a descricao do produto.
+	 */
+	public void removeId(String nome, String descricao) {
+		HashMap<String, IdProduto> descricoes = this.ids.get(nome);
+		if (descricoes == null)
+			return;
+		descricoes.remove(descricao);
+		if (descricoes.isEmpty())
+			this.ids.remove(nome);
+	}
+}
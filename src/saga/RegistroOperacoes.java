@@ -0,0 +1,315 @@
+package saga;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * Representacao do registro de operacoes do sistema. Toda operacao que altera o
+ * estado do sistema e anotada, em ordem, ao final de um arquivo. Ao iniciar o
+ * sistema a partir do arquivo, as operacoes sao reaplicadas para reconstruir o
+ * estado.
+ *
+ * Cada operacao ocupa uma linha no formato:
+ * SEQUENCIA\tOPERACAO\tARG1\t...\tARGN\t. A sequencia e um numero crescente que
+ * identifica a operacao. Os argumentos tem os caracteres especiais escapados
+ * com "\". A tabulacao final marca a linha como completa.
+ *
+ * As escritas sao acumuladas em memoria e gravadas no disco em lotes, a cada
+ * {@value #LOTE} operacoes, ou quando o registro e sincronizado ou fechado.
+ * Uma linha incompleta ao final do arquivo, interrompida durante a escrita, e
+ * descartada antes que novas operacoes sejam registradas.
+ *
+ * @author Pedro Henrique
+ */
+public class RegistroOperacoes {
+
+	/**
+	 * Quantidade de operacoes acumuladas antes de serem gravadas no arquivo.
+	 */
+	public static final int LOTE = 64;
+
+	/**
+	 * Armazena o caminho do arquivo do registro.
+	 */
+	private String arquivo;
+
+	/**
+	 * Armazena a saida do arquivo, aberta ao final do arquivo.
+	 */
+	private FileOutputStream saida;
+
+	/**
+	 * Armazena o escritor do arquivo, que escreve na saida do arquivo.
+	 */
+	private BufferedWriter escritor;
+
+	/**
+	 * Armazena a sequencia da ultima operacao registrada.
+	 */
+	private long sequencia;
+
+	/**
+	 * Armazena a quantidade de operacoes ainda nao gravadas no arquivo.
+	 */
+	private int pendentes;
+
+	/**
+	 * Armazena a posicao, em bytes, a partir da qual o arquivo sera lido.
+	 */
+	private long posicao;
+
+	/**
+	 * Armazena a posicao, em bytes, logo apos a ultima operacao completa lida do
+	 * arquivo, ou -1 caso o arquivo ainda nao tenha sido lido.
+	 */
+	private long fim;
+
+	/**
+	 * Constroi o registro a partir do caminho de seu arquivo. O arquivo so e aberto
+	 * para escrita pelo metodo {@link saga.RegistroOperacoes#abre()}.
+	 *
+	 * @param arquivo e o caminho do arquivo do registro.
+	 */
+	public RegistroOperacoes(String arquivo) {
+		this.arquivo = arquivo;
+		this.fim = -1;
+	}
+
+	/**
+	 * Posiciona o registro logo apos uma operacao ja aplicada ao sistema, por
+	 * exemplo, a ultima operacao contida em uma imagem do sistema. A leitura do
+	 * arquivo comecara a partir desta posicao.
+	 *
+	 * @param sequencia e a sequencia da operacao.
+	 * @param posicao   e a posicao, em bytes, logo apos a operacao no arquivo.
+	 */
+	public void posiciona(long sequencia, long posicao) {
+		this.sequencia = sequencia;
+		this.posicao = posicao;
+	}
+
+	/**
+	 * Le as operacoes do arquivo, em ordem, e as aplica ao sistema. A leitura
+	 * comeca na posicao definida por
+	 * {@link saga.RegistroOperacoes#posiciona(long, long)}, ou no inicio do
+	 * arquivo. Operacoes com sequencia menor que ou igual a ja registrada sao
+	 * ignoradas. A leitura para na primeira linha incompleta, que pode ter sido
+	 * interrompida durante a escrita, e a posicao logo apos a ultima linha completa
+	 * e guardada para que o restante do arquivo seja descartado pelo metodo
+	 * {@link saga.RegistroOperacoes#abre()}. Caso o arquivo nao exista nenhuma
+	 * operacao e aplicada.
+	 *
+	 * Caso o arquivo nao possa ser lido sera lancado um IllegalArgumentException:
+	 * "Erro na recuperacao do sistema: arquivo nao pode ser lido."
+	 *
+	 * @param sistema e o sistema que recebera as operacoes.
+	 */
+	public void reproduz(Sistema sistema) {
+		this.fim = this.posicao;
+		try (FileInputStream arquivo = new FileInputStream(this.arquivo);
+				BufferedInputStream leitor = new BufferedInputStream(arquivo)) {
+			arquivo.getChannel().position(this.posicao);
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			int b;
+			while ((b = leitor.read()) != -1) {
+				if (b != '\n') {
+					bytes.write(b);
+					continue;
+				}
+				ArrayList<String> campos = separaCampos(new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+				if (campos == null || campos.size() < 3 || !"".equals(campos.get(campos.size() - 1)))
+					break;
+				long sequenciaLinha;
+				try {
+					sequenciaLinha = Long.parseLong(campos.get(0));
+				} catch (NumberFormatException nfe) {
+					break;
+				}
+				this.fim += bytes.size() + 1;
+				bytes.reset();
+				if (sequenciaLinha <= this.sequencia)
+					continue;
+				sistema.aplicaOperacao(campos.get(1), campos.subList(2, campos.size() - 1));
+				this.sequencia = sequenciaLinha;
+			}
+		} catch (FileNotFoundException fnfe) {
+			return;
+		} catch (IOException ioe) {
+			throw new IllegalArgumentException("Erro na recuperacao do sistema: arquivo nao pode ser lido.");
+		}
+	}
+
+	/**
+	 * Abre o arquivo para que novas operacoes sejam registradas ao seu final. Caso
+	 * o arquivo ja tenha sido lido, tudo o que vem apos a ultima operacao completa
+	 * e descartado, para que a proxima operacao nao seja escrita na mesma linha de
+	 * uma operacao interrompida.
+	 *
+	 * Caso o arquivo nao possa ser aberto sera lancado um IllegalArgumentException:
+	 * "Erro no registro de operacoes: arquivo nao pode ser escrito."
+	 */
+	public void abre() {
+		try {
+			this.saida = new FileOutputStream(this.arquivo, true);
+			if (this.fim >= 0)
+				this.saida.getChannel().truncate(this.fim);
+			this.escritor = new BufferedWriter(new OutputStreamWriter(this.saida, StandardCharsets.UTF_8));
+		} catch (IOException ioe) {
+			throw new IllegalArgumentException("Erro no registro de operacoes: arquivo nao pode ser escrito.");
+		}
+	}
+
+	/**
+	 * Registra uma operacao e seus argumentos. A operacao recebe a proxima
+	 * sequencia e e gravada no arquivo junto com o seu lote.
+	 *
+	 * Caso o arquivo nao possa ser escrito sera lancado um
+	 * IllegalArgumentException: "Erro no registro de operacoes: arquivo nao pode
+	 * ser escrito."
+	 *
+	 * @param operacao   e o nome da operacao.
+	 * @param argumentos e a lista de argumentos da operacao.
+	 */
+	public void registra(String operacao, String... argumentos) {
+		StringBuilder linha = new StringBuilder();
+		linha.append(++this.sequencia).append('\t').append(operacao);
+		for (String argumento : argumentos) {
+			linha.append('\t');
+			escapa(linha, argumento);
+		}
+		linha.append('\t').append('\n');
+		try {
+			this.escritor.write(linha.toString());
+			if (++this.pendentes >= LOTE)
+				sincroniza();
+		} catch (IOException ioe) {
+			throw new IllegalArgumentException("Erro no registro de operacoes: arquivo nao pode ser escrito.");
+		}
+	}
+
+	/**
+	 * Grava no arquivo todas as operacoes pendentes e forca a sua gravacao no
+	 * disco.
+	 *
+	 * Caso o arquivo nao possa ser escrito sera lancado um
+	 * IllegalArgumentException: "Erro no registro de operacoes: arquivo nao pode
+	 * ser escrito."
+	 */
+	public void sincroniza() {
+		try {
+			this.escritor.flush();
+			this.saida.getFD().sync();
+			this.pendentes = 0;
+		} catch (IOException ioe) {
+			throw new IllegalArgumentException("Erro no registro de operacoes: arquivo nao pode ser escrito.");
+		}
+	}
+
+	/**
+	 * Grava as operacoes pendentes e fecha o arquivo.
+	 *
+	 * Caso o arquivo nao possa ser escrito sera lancado um
+	 * IllegalArgumentException: "Erro no registro de operacoes: arquivo nao pode
+	 * ser escrito."
+	 */
+	public void fecha() {
+		try {
+			this.escritor.flush();
+			this.saida.getFD().sync();
+			this.escritor.close();
+			this.pendentes = 0;
+		} catch (IOException ioe) {
+			throw new IllegalArgumentException("Erro no registro de operacoes: arquivo nao pode ser escrito.");
+		}
+	}
+
+	public long getSequencia() {
+		return this.sequencia;
+	}
+
+	/**
+	 * Retorna o tamanho atual do arquivo, em bytes. Apos a sincronizacao, e a
+	 * posicao logo apos a ultima operacao registrada.
+	 *
+	 * @return e retornado o tamanho do arquivo.
+	 */
+	public long getTamanho() {
+		return new File(this.arquivo).length();
+	}
+
+	/**
+	 * Escreve um argumento escapando os caracteres especiais. Um argumento nulo e
+	 * escrito como "\N".
+	 *
+	 * @param linha     e a linha onde o argumento sera escrito.
+	 * @param argumento e o argumento.
+	 */
+	private static void escapa(StringBuilder linha, String argumento) {
+		if (argumento == null) {
+			linha.append("\\N");
+			return;
+		}
+		for (int i = 0; i < argumento.length(); i++) {
+			char c = argumento.charAt(i);
+			if (c == '\\')
+				linha.append("\\\\");
+			else if (c == '\t')
+				linha.append("\\t");
+			else if (c == '\n')
+				linha.append("\\n");
+			else if (c == '\r')
+				linha.append("\\r");
+			else
+				linha.append(c);
+		}
+	}
+
+	/**
+	 * Separa uma linha do arquivo em campos, desfazendo o escape dos argumentos.
+	 *
+	 * @param linha e a linha do arquivo.
+	 * @return e retornado a lista de campos ou null caso a linha seja invalida.
+	 */
+	private static ArrayList<String> separaCampos(String linha) {
+		ArrayList<String> campos = new ArrayList<>();
+		StringBuilder campo = new StringBuilder();
+		boolean nulo = false;
+		for (int i = 0; i < linha.length(); i++) {
+			char c = linha.charAt(i);
+			if (c == '\t') {
+				campos.add(nulo ? null : campo.toString());
+				campo.setLength(0);
+				nulo = false;
+			} else if (c == '\\') {
+				if (++i == linha.length())
+					return null;
+				char escapado = linha.charAt(i);
+				if (escapado == '\\')
+					campo.append('\\');
+				else if (escapado == 't')
+					campo.append('\t');
+				else if (escapado == 'n')
+					campo.append('\n');
+				else if (escapado == 'r')
+					campo.append('\r');
+				else if (escapado == 'N')
+					nulo = true;
+				else
+					return null;
+			} else {
+				campo.append(c);
+			}
+		}
+		campos.add(nulo ? null : campo.toString());
+		return campos;
+	}
+}
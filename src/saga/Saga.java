@@ -1,5 +1,7 @@
 package saga;
 
+import java.util.ArrayList;
+
 import easyaccept.EasyAccept;
 
 /**
@@ -21,6 +23,34 @@ public class Saga {
 		this.sistema = new Sistema();
 	}
 
+	/**
+	 * {@link saga.Sistema#Sistema(String)}
+	 */
+	public Saga(String arquivo) {
+		this.sistema = new Sistema(arquivo);
+	}
+
+	/**
+	 * {@link saga.Sistema#sincroniza()}
+	 */
+	public void sincroniza() {
+		sistema.sincroniza();
+	}
+
+	/**
+	 * {@link saga.Sistema#salvaImagem()}
+	 */
+	public void salvaImagem() {
+		sistema.salvaImagem();
+	}
+
+	/**
+	 * {@link saga.Sistema#fecha()}
+	 */
+	public void fecha() {
+		sistema.fecha();
+	}
+
 	/**
 	 * {@link saga.Sistema#adicionaCliente(String, String, String, String)}
 	 */
@@ -119,6 +149,27 @@ public class Saga {
 		return sistema.exibeProdutos();
 	}
 
+	/**
+	 * {@link saga.Sistema#exibeFornecedoresProduto(String, String)}
+	 */
+	public String exibeFornecedoresProduto(String nome, String descricao) {
+		return sistema.exibeFornecedoresProduto(nome, descricao);
+	}
+
+	/**
+	 * {@link saga.Sistema#buscaProdutos(String)}
+	 */
+	public String buscaProdutos(String consulta) {
+		return sistema.buscaProdutos(consulta);
+	}
+
+	/**
+	 * {@link saga.Sistema#importaProdutos(String, String)}
+	 */
+	public String importaProdutos(String fornecedor, String caminho) {
+		return sistema.importaProdutos(fornecedor, caminho);
+	}
+
 	/**
 	 * {@link saga.Sistema#editaProduto(String, String, String, double)}
 	 */
@@ -147,6 +198,21 @@ public class Saga {
 		sistema.adicionaCombo(fornecedor, nome, descricao, fator, produtos);
 	}
 
+	/**
+	 * {@link saga.Sistema#adicionaCombo(String, String, String, double, ArrayList)}
+	 */
+	public void adicionaCombo(String fornecedor, String nome, String descricao, double fator,
+			ArrayList<IdProduto> componentes) {
+		sistema.adicionaCombo(fornecedor, nome, descricao, fator, componentes);
+	}
+
+	/**
+	 * {@link saga.Sistema#recuperaIdProduto(String, String, String)}
+	 */
+	public IdProduto recuperaIdProduto(String fornecedor, String nome, String descricao) {
+		return sistema.recuperaIdProduto(fornecedor, nome, descricao);
+	}
+
 	/**
 	 * {@link saga.Sistema#editaCombo(String, String, String, double)}
 	 */
@@ -161,6 +227,13 @@ public class Saga {
 		return sistema.getDebito(cpf, fornecedor);
 	}
 
+	/**
+	 * {@link saga.Sistema#getDebitoFornecedor(String)}
+	 */
+	public String getDebitoFornecedor(String fornecedor) {
+		return sistema.getDebitoFornecedor(fornecedor);
+	}
+
 	/**
 	 * {@link saga.Sistema#exibeContas(String, String)}
 	 */
@@ -168,6 +241,20 @@ public class Saga {
 		return sistema.exibeContas(cpf, fornecedor);
 	}
 
+	/**
+	 * {@link saga.Sistema#exibeContas(String, String, StringBuilder, int, int)}
+	 */
+	public int exibeContas(String cpf, String fornecedor, StringBuilder destino, int inicio, int tamanhoPagina) {
+		return sistema.exibeContas(cpf, fornecedor, destino, inicio, tamanhoPagina);
+	}
+
+	/**
+	 * {@link saga.Sistema#exibeHistorico(String, String)}
+	 */
+	public String exibeHistorico(String cpf, String fornecedor) {
+		return sistema.exibeHistorico(cpf, fornecedor);
+	}
+
 	/**
 	 * {@link saga.Sistema#exibeContasClientes(String)}
 	 */
@@ -182,6 +269,13 @@ public class Saga {
 		sistema.realizaPagamento(cpf, fornecedor);
 	}
 
+	/**
+	 * {@link saga.Sistema#realizaPagamento(String, String, double)}
+	 */
+	public void realizaPagamento(String cpf, String fornecedor, double valor) {
+		sistema.realizaPagamento(cpf, fornecedor, valor);
+	}
+
 	/**
 	 * {@link saga.Sistema#ordenaPor(String)}
 	 */
@@ -196,6 +290,21 @@ public class Saga {
 		return sistema.listarCompras();
 	}
 
+	/**
+	 * {@link saga.Sistema#listarCompras(int)}
+	 */
+	public String listarCompras(int quantidade) {
+		return sistema.listarCompras(quantidade);
+	}
+
+	/**
+	 * {@link saga.Sistema#listarCompras(String, String, String, String, int, int)}
+	 */
+	public String listarCompras(String cpf, String fornecedor, String dataInicial, String dataFinal, int limite,
+			int deslocamento) {
+		return sistema.listarCompras(cpf, fornecedor, dataInicial, dataFinal, limite, deslocamento);
+	}
+
 	public static void main(String[] args) {
 		args = new String[] { "saga.Saga", "testes_aceitacao/use_case_1.txt", "testes_aceitacao/use_case_2.txt",
 				"testes_aceitacao/use_case_3.txt", "testes_aceitacao/use_case_4.txt", "testes_aceitacao/use_case_6.txt",
@@ -1,5 +1,11 @@
 package saga;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Representacao do Sistema, o sistema possui dois controladores, um de clientes
  * e um de fornecedores, alem de gerenciar o funcionamento de todas as operacoes
@@ -11,6 +17,17 @@ package saga;
  */
 public class Sistema {
 
+	/**
+	 * Quantidade maxima de compras de uma pagina da listagem de compras.
+	 */
+	public static final int LIMITE_MAXIMO = 100;
+
+	/**
+	 * Quantidade maxima de compras ignoradas antes de uma pagina da listagem de
+	 * compras.
+	 */
+	public static final int DESLOCAMENTO_MAXIMO = 10000;
+
 	/**
 	 * Representa o controlador de clientes.
 	 */
@@ -21,6 +38,18 @@ public class Sistema {
 	 */
 	private ControllerFornecedor controladorFornecedor;
 
+	/**
+	 * Representa o registro das operacoes que alteram o sistema. E nulo quando o
+	 * sistema nao e persistido.
+	 */
+	private RegistroOperacoes registro;
+
+	/**
+	 * Representa a imagem binaria do sistema. E nula quando o sistema nao e
+	 * persistido.
+	 */
+	private ImagemSistema imagem;
+
 	/**
 	 * Constroi o sistema, construindo os controladores de clientes e de
 	 * fornecedores.
@@ -30,6 +59,185 @@ public class Sistema {
 		controladorFornecedor = new ControllerFornecedor();
 	}
 
+	/**
+	 * Constroi o sistema persistido em um arquivo de registro de operacoes. Caso
+	 * exista uma imagem do sistema (o arquivo com a extensao ".img"), ela e
+	 * carregada primeiro. As operacoes do registro que nao estao na imagem sao
+	 * reaplicadas para reconstruir o sistema, e toda nova operacao que altere o
+	 * sistema sera registrada ao final do arquivo.
+	 * 
+	 * Caso o arquivo seja nulo ou vazio sera lancada uma excecao: "Erro na
+	 * recuperacao do sistema: arquivo nao pode ser vazio ou nulo." Caso o arquivo
+	 * nao possa ser lido sera lancada uma excecao: "Erro na recuperacao do sistema:
+	 * arquivo nao pode ser lido." Caso a imagem seja invalida, ela e ignorada e
+	 * todo o registro de operacoes e reaplicado.
+	 * 
+	 * @param arquivo e o caminho do arquivo de registro de operacoes.
+	 */
+	public Sistema(String arquivo) {
+		this();
+		if (arquivo == null || arquivo.equals(""))
+			throw new IllegalArgumentException("Erro na recuperacao do sistema: arquivo nao pode ser vazio ou nulo.");
+
+		ImagemSistema imagem = new ImagemSistema(arquivo + ".img");
+		RegistroOperacoes registro = new RegistroOperacoes(arquivo);
+		if (imagem.carrega(this)) {
+			registro.posiciona(imagem.getSequencia(), imagem.getPosicaoRegistro());
+		} else {
+			controladorCliente = new ControllerCliente();
+			controladorFornecedor = new ControllerFornecedor();
+		}
+		registro.reproduz(this);
+		registro.abre();
+		this.registro = registro;
+		this.imagem = imagem;
+		this.controladorFornecedor.setRegistro(registro);
+	}
+
+	/**
+	 * Salva uma imagem do estado atual do sistema. A imagem e codificada
+	 * imediatamente e gravada em segundo plano, substituindo a imagem anterior
+	 * apenas quando a gravacao terminar. Na proxima recuperacao, apenas as
+	 * operacoes posteriores a imagem serao reaplicadas.
+	 * 
+	 * Caso o sistema nao seja persistido sera lancada uma excecao: "Erro na
+	 * gravacao da imagem do sistema: sistema nao e persistido."
+	 */
+	public void salvaImagem() {
+		if (this.registro == null)
+			throw new IllegalArgumentException("Erro na gravacao da imagem do sistema: sistema nao e persistido.");
+
+		this.registro.sincroniza();
+		this.imagem.salva(ImagemSistema.codifica(this, this.registro.getSequencia(), this.registro.getTamanho()));
+	}
+
+	/**
+	 * Escreve o estado do sistema na imagem do sistema.
+	 * 
+	 * @param saida e a saida da imagem.
+	 * @throws IOException caso a saida nao possa ser escrita.
+	 */
+	void escreve(DataOutputStream saida) throws IOException {
+		this.controladorCliente.escreve(saida);
+		this.controladorFornecedor.escreve(saida);
+	}
+
+	/**
+	 * Le o estado do sistema da imagem do sistema.
+	 * 
+	 * @param entrada e a entrada da imagem.
+	 */
+	void le(ByteBuffer entrada) {
+		this.controladorCliente.le(entrada);
+		this.controladorFornecedor.le(entrada);
+	}
+
+	/**
+	 * Grava no arquivo de registro todas as operacoes pendentes. Nao faz nada caso
+	 * o sistema nao seja persistido.
+	 */
+	public void sincroniza() {
+		if (this.registro != null)
+			this.registro.sincroniza();
+	}
+
+	/**
+	 * Grava as operacoes pendentes e fecha o arquivo de registro, aguardando a
+	 * gravacao de uma imagem em andamento. Nao faz nada caso o sistema nao seja
+	 * persistido.
+	 */
+	public void fecha() {
+		if (this.registro != null) {
+			this.registro.fecha();
+			this.imagem.aguarda();
+		}
+	}
+
+	/**
+	 * Registra uma operacao que alterou o sistema, caso ele seja persistido.
+	 * 
+	 * @param operacao   e o nome da operacao.
+	 * @param argumentos e a lista de argumentos da operacao.
+	 */
+	private void registra(String operacao, String... argumentos) {
+		if (this.registro != null)
+			this.registro.registra(operacao, argumentos);
+	}
+
+	/**
+	 * Aplica ao sistema uma operacao lida do arquivo de registro.
+	 * 
+	 * Caso a operacao nao seja conhecida sera lancada uma excecao: "Erro na
+	 * recuperacao do sistema: operacao invalida."
+	 * 
+	 * @param operacao   e o nome da operacao.
+	 * @param argumentos e a lista de argumentos da operacao.
+	 */
+	void aplicaOperacao(String operacao, List<String> argumentos) {
+		try {
+			switch (operacao) {
+			case "adicionaCliente":
+				adicionaCliente(argumentos.get(0), argumentos.get(1), argumentos.get(2), argumentos.get(3));
+				break;
+			case "editaCliente":
+				editaCliente(argumentos.get(0), argumentos.get(1), argumentos.get(2));
+				break;
+			case "removeCliente":
+				removeCliente(argumentos.get(0));
+				break;
+			case "adicionaFornecedor":
+				adicionaFornecedor(argumentos.get(0), argumentos.get(1), argumentos.get(2));
+				break;
+			case "editaFornecedor":
+				editaFornecedor(argumentos.get(0), argumentos.get(1), argumentos.get(2));
+				break;
+			case "removeFornecedor":
+				removeFornecedor(argumentos.get(0));
+				break;
+			case "adicionaProduto":
+				adicionaProduto(argumentos.get(0), argumentos.get(1), argumentos.get(2),
+						Double.parseDouble(argumentos.get(3)));
+				break;
+			case "editaProduto":
+				editaProduto(argumentos.get(0), argumentos.get(1), argumentos.get(2),
+						Double.parseDouble(argumentos.get(3)));
+				break;
+			case "removeProduto":
+				removeProduto(argumentos.get(0), argumentos.get(1), argumentos.get(2));
+				break;
+			case "adicionaCompra":
+				adicionaCompra(argumentos.get(0), argumentos.get(1), argumentos.get(2), argumentos.get(3),
+						argumentos.get(4));
+				break;
+			case "adicionaCombo":
+				adicionaCombo(argumentos.get(0), argumentos.get(1), argumentos.get(2),
+						Double.parseDouble(argumentos.get(3)), argumentos.get(4));
+				break;
+			case "adicionaComboComponentes":
+				adicionaCombo(argumentos.get(0), argumentos.get(1), argumentos.get(2),
+						Double.parseDouble(argumentos.get(3)), recuperaComponentes(argumentos));
+				break;
+			case "editaCombo":
+				editaCombo(argumentos.get(0), argumentos.get(1), argumentos.get(2),
+						Double.parseDouble(argumentos.get(3)));
+				break;
+			case "realizaPagamento":
+				realizaPagamento(argumentos.get(0), argumentos.get(1));
+				break;
+			case "realizaPagamentoParcial":
+				realizaPagamento(argumentos.get(0), argumentos.get(1), Double.parseDouble(argumentos.get(2)));
+				break;
+			case "ordenaPor":
+				ordenaPor(argumentos.get(0));
+				break;
+			default:
+				throw new IllegalArgumentException("Erro na recuperacao do sistema: operacao invalida.");
+			}
+		} catch (IndexOutOfBoundsException ioobe) {
+			throw new IllegalArgumentException("Erro na recuperacao do sistema: operacao invalida.");
+		}
+	}
+
 	/**
 	 * Adiciona um cliente ao sistema. Chama o metodo adicionaCliente passando o
 	 * cpf, nome, email e localizacao. Se a adicao for efetuado com sucesso sera
@@ -42,7 +250,9 @@ public class Sistema {
 	 * @return retorna o cpf do cliente.
 	 */
 	public String adicionaCliente(String cpf, String nome, String email, String localizacao) {
-		return controladorCliente.adicionaCliente(cpf, nome, email, localizacao);
+		String resultado = controladorCliente.adicionaCliente(cpf, nome, email, localizacao);
+		registra("adicionaCliente", cpf, nome, email, localizacao);
+		return resultado;
 	}
 
 	/**
@@ -69,7 +279,9 @@ public class Sistema {
 	 *         efetuada com sucesso.
 	 */
 	public String editaCliente(String cpf, String atributo, String valor) {
-		return controladorCliente.editaCliente(cpf, atributo, valor);
+		String resultado = controladorCliente.editaCliente(cpf, atributo, valor);
+		registra("editaCliente", cpf, atributo, valor);
+		return resultado;
 	}
 
 	/**
@@ -88,6 +300,7 @@ public class Sistema {
 	 */
 	public void removeCliente(String cpf) {
 		controladorCliente.removeCliente(cpf);
+		registra("removeCliente", cpf);
 	}
 
 	/**
@@ -101,7 +314,9 @@ public class Sistema {
 	 * @return retorna o nome do fornecedor.
 	 */
 	public String adicionaFornecedor(String nome, String email, String telefone) {
-		return controladorFornecedor.adicionaFornecedor(nome, email, telefone);
+		String resultado = controladorFornecedor.adicionaFornecedor(nome, email, telefone);
+		registra("adicionaFornecedor", nome, email, telefone);
+		return resultado;
 	}
 
 	/**
@@ -137,7 +352,9 @@ public class Sistema {
 	 *         efetuada com sucesso.
 	 */
 	public String editaFornecedor(String nome, String atributo, String valor) {
-		return controladorFornecedor.editaFornecedor(nome, atributo, valor);
+		String resultado = controladorFornecedor.editaFornecedor(nome, atributo, valor);
+		registra("editaFornecedor", nome, atributo, valor);
+		return resultado;
 	}
 
 	/**
@@ -147,6 +364,7 @@ public class Sistema {
 	 */
 	public void removeFornecedor(String nome) {
 		controladorFornecedor.removeFornecedor(nome);
+		registra("removeFornecedor", nome);
 	}
 
 	/**
@@ -161,6 +379,7 @@ public class Sistema {
 	 */
 	public void adicionaProduto(String fornecedor, String nome, String descricao, double preco) {
 		controladorFornecedor.adicionaProduto(fornecedor, nome, descricao, preco);
+		registra("adicionaProduto", fornecedor, nome, descricao, Double.toString(preco));
 	}
 
 	/**
@@ -198,6 +417,46 @@ public class Sistema {
 		return controladorFornecedor.exibeProdutos();
 	}
 
+	/**
+	 * Retorna uma String listando todos os fornecedores que vendem um produto,
+	 * identificado pelo nome e descricao.
+	 * 
+	 * @param nome      e o nome do produto.
+	 * @param descricao e a descricao do produto.
+	 * @return retorna a representacao toString do produto em cada fornecedor que o
+	 *         vende.
+	 */
+	public String exibeFornecedoresProduto(String nome, String descricao) {
+		return controladorFornecedor.exibeFornecedoresProduto(nome, descricao);
+	}
+
+	/**
+	 * Busca produtos de todos os fornecedores a partir de termos presentes em seus
+	 * nomes e descricoes. Os termos sao tratados como prefixos e os produtos mais
+	 * relevantes aparecem primeiro.
+	 * 
+	 * @param consulta e o texto da busca.
+	 * @return retorna a representacao toString dos produtos encontrados.
+	 */
+	public String buscaProdutos(String consulta) {
+		return controladorFornecedor.buscaProdutos(consulta);
+	}
+
+	/**
+	 * Importa os produtos e combos de um fornecedor a partir de um arquivo, em uma
+	 * unica passada. Linhas invalidas sao reportadas sem interromper a importacao.
+	 * Caso o sistema seja persistido, cada produto importado e registrado como uma
+	 * operacao de cadastro, para que a recuperacao nao dependa do arquivo
+	 * importado.
+	 * 
+	 * @param fornecedor e o nome do fornecedor que tera os produtos cadastrados.
+	 * @param caminho    e o caminho do arquivo com os produtos.
+	 * @return retorna o relatorio da importacao.
+	 */
+	public String importaProdutos(String fornecedor, String caminho) {
+		return controladorFornecedor.importaProdutos(fornecedor, caminho);
+	}
+
 	/**
 	 * Edita o atributo do fornecedor, com o valor indicado pelo parametro. O nome e
 	 * descricao irao identificar unicamente um produto, este produto sera
@@ -212,6 +471,7 @@ public class Sistema {
 	 */
 	public void editaProduto(String nome, String descricao, String fornecedor, double valor) {
 		controladorFornecedor.editaProduto(nome, descricao, fornecedor, valor);
+		registra("editaProduto", nome, descricao, fornecedor, Double.toString(valor));
 	}
 
 	/**
@@ -224,6 +484,7 @@ public class Sistema {
 	 */
 	public void removeProduto(String fornecedor, String nome, String descricao) {
 		controladorFornecedor.removeProduto(fornecedor, nome, descricao);
+		registra("removeProduto", fornecedor, nome, descricao);
 	}
 
 	/**
@@ -232,6 +493,10 @@ public class Sistema {
 	 * possui uma data, o fornecedor  identificado pelo seu nome e a Conta do
 	 * cliente  identificada pelo seu cpf.
 	 * 
+	 * A data e guardada como dia epoca, e nao como o texto recebido. Por isso, ela
+	 * e sempre exibida com dois digitos no dia e no mes: a data 1/2/2019 e exibida
+	 * como 01-02-2019 nas contas e como 01/02/2019 na listagem de compras.
+	 * 
 	 * Caso o cpf seja nulo ou vazio sera lancada uma excecao: "Erro ao cadastrar
 	 * compra: cpf nao pode ser vazio ou nulo." Caso o cpf nao possua 11 caracteres
 	 * sera lancada uma excecao: "Erro ao cadastrar compra: cpf invalido." Caso o
@@ -255,6 +520,7 @@ public class Sistema {
 
 		String cliente = this.controladorCliente.getNomeCliente(cpf);
 		this.controladorFornecedor.adicionaCompra(cpf, fornecedor, data, nome, descricao, cliente);
+		registra("adicionaCompra", cpf, fornecedor, data, nome, descricao);
 	}
 
 	/**
@@ -269,6 +535,69 @@ public class Sistema {
 	 */
 	public void adicionaCombo(String fornecedor, String nome, String descricao, double fator, String produtos) {
 		this.controladorFornecedor.adicionaCombo(fornecedor, nome, descricao, fator, produtos);
+		registra("adicionaCombo", fornecedor, nome, descricao, Double.toString(fator), produtos);
+	}
+
+	/**
+	 * Adiciona um combo que um fornecedor oferece a partir dos ids dos produtos
+	 * que o compoem, recuperados por
+	 * {@link saga.Sistema#recuperaIdProduto(String, String, String)}. A operacao e
+	 * registrada com o nome e a descricao de cada componente, cada um em seu
+	 * proprio argumento.
+	 * 
+	 * @param fornecedor  e o fornecedor que oferece o combo.
+	 * @param nome        e o nome do combo.
+	 * @param descricao   e a descricao do combo.
+	 * @param fator       e o fator do desconto.
+	 * @param componentes e a lista de ids dos produtos do combo.
+	 */
+	public void adicionaCombo(String fornecedor, String nome, String descricao, double fator,
+			ArrayList<IdProduto> componentes) {
+		this.controladorFornecedor.adicionaCombo(fornecedor, nome, descricao, fator, componentes);
+		String[] argumentos = new String[4 + 2 * componentes.size()];
+		argumentos[0] = fornecedor;
+		argumentos[1] = nome;
+		argumentos[2] = descricao;
+		argumentos[3] = Double.toString(fator);
+		for (int i = 0; i < componentes.size(); i++) {
+			argumentos[4 + 2 * i] = componentes.get(i).getNome();
+			argumentos[5 + 2 * i] = componentes.get(i).getDescricao();
+		}
+		registra("adicionaComboComponentes", argumentos);
+	}
+
+	/**
+	 * Recupera os ids dos componentes de um combo registrado pela operacao
+	 * adicionaComboComponentes, cujos argumentos a partir do quinto sao pares de
+	 * nome e descricao.
+	 * 
+	 * Caso os argumentos nao formem pares sera lancada uma excecao: "Erro na
+	 * recuperacao do sistema: operacao invalida."
+	 * 
+	 * @param argumentos e a lista de argumentos da operacao.
+	 * @return e retornado a lista de ids dos componentes.
+	 */
+	private ArrayList<IdProduto> recuperaComponentes(List<String> argumentos) {
+		if (argumentos.size() % 2 != 0)
+			throw new IllegalArgumentException("Erro na recuperacao do sistema: operacao invalida.");
+		ArrayList<IdProduto> componentes = new ArrayList<>();
+		for (int i = 4; i < argumentos.size(); i += 2)
+			componentes.add(recuperaIdProduto(argumentos.get(0), argumentos.get(i), argumentos.get(i + 1)));
+		return componentes;
+	}
+
+	/**
+	 * Recupera o id de um produto de um fornecedor. O id nao permite alterar o
+	 * produto e e usado para compor combos do fornecedor atraves de
+	 * {@link saga.Sistema#adicionaCombo(String, String, String, double, ArrayList)}.
+	 * 
+	 * @param fornecedor e o fornecedor do produto.
+	 * @param nome       e o nome do produto.
+	 * @param descricao  e a descricao do produto.
+	 * @return e retornado o id do produto.
+	 */
+	public IdProduto recuperaIdProduto(String fornecedor, String nome, String descricao) {
+		return this.controladorFornecedor.recuperaIdProduto(fornecedor, nome, descricao);
 	}
 
 	/**
@@ -283,6 +612,7 @@ public class Sistema {
 	 */
 	public void editaCombo(String fornecedor, String nome, String descricao, double fator) {
 		controladorFornecedor.editaCombo(fornecedor, nome, descricao, fator);
+		registra("editaCombo", fornecedor, nome, descricao, Double.toString(fator));
 	}
 
 	/**
@@ -308,6 +638,21 @@ public class Sistema {
 		return controladorFornecedor.getDebito(cpf, fornecedor);
 	}
 
+	/**
+	 * Recupera o debito em aberto de todos os clientes com um fornecedor.
+	 * 
+	 * Caso o fornecedor seja nulo ou vazio sera lancada uma excecao: "Erro ao
+	 * recuperar debito: fornecedor nao pode ser vazio ou nulo." Caso o fornecedor
+	 * nao exista sera lancada uma excecao: "Erro ao recuperar debito: fornecedor
+	 * nao existe."
+	 * 
+	 * @param fornecedor e o nome que identifica o fornecedor.
+	 * @return e retornado o debito total do fornecedor.
+	 */
+	public String getDebitoFornecedor(String fornecedor) {
+		return controladorFornecedor.getDebitoFornecedor(fornecedor);
+	}
+
 	/**
 	 * Exibe todas as compras de um cliente de fornecedor.
 	 * 
@@ -335,6 +680,70 @@ public class Sistema {
 		return controladorFornecedor.exibeContas(cpf, fornecedor, cliente);
 	}
 
+	/**
+	 * Exibe todas as compras que um cliente ja pagou em um fornecedor, na ordem em
+	 * que foram pagas.
+	 * 
+	 * Caso o cpf seja nulo ou vazio sera lancada uma excecao: "Erro ao exibir
+	 * historico do cliente: cpf nao pode ser vazio ou nulo." Caso o cpf nao possua
+	 * 11 caracteres sera lancada uma excecao: "Erro ao exibir historico do cliente:
+	 * cpf invalido." Caso o cpf nao remeter a nenhum cliente sera lancada uma
+	 * excecao: "Erro ao exibir historico do cliente: cliente nao existe."
+	 * 
+	 * @param cpf        e o cpf que identifica o cliente.
+	 * @param fornecedor e o nome que identifica o fornecedor.
+	 * @return e retornado a representacao de todas as compras pagas pelo cliente
+	 *         no dado fornecedor.
+	 */
+	public String exibeHistorico(String cpf, String fornecedor) {
+		if (cpf == null || cpf.equals(""))
+			throw new IllegalArgumentException("Erro ao exibir historico do cliente: cpf nao pode ser vazio ou nulo.");
+		if (cpf.length() != 11)
+			throw new IllegalArgumentException("Erro ao exibir historico do cliente: cpf invalido.");
+		if (!this.controladorCliente.existeCliente(cpf))
+			throw new IllegalArgumentException("Erro ao exibir historico do cliente: cliente nao existe.");
+
+		String cliente = this.controladorCliente.getNomeCliente(cpf);
+		return controladorFornecedor.exibeHistorico(cpf, fornecedor, cliente);
+	}
+
+	/**
+	 * Escreve uma pagina das compras que um cliente possui em um fornecedor em um
+	 * destino fornecido pelo chamador, separadas por " | ". A primeira pagina
+	 * comeca na posicao 0 e cada chamada retorna a posicao em que a pagina seguinte
+	 * deve comecar, ou -1 quando todas as compras ja foram escritas. Assim, contas
+	 * grandes podem ser exibidas aos poucos, sem montar a exibicao inteira. As
+	 * posicoes contam todas as compras da conta, inclusive as ja quitadas, de modo
+	 * que um pagamento entre duas paginas nao desloca a pagina seguinte.
+	 * 
+	 * Caso o cpf seja nulo ou vazio sera lancada uma excecao: "Erro ao exibir conta
+	 * do cliente: cpf nao pode ser vazio ou nulo." Caso o cpf nao possua 11
+	 * caracteres sera lancada uma excecao: "Erro ao exibir conta do cliente: cpf
+	 * invalido." Caso o cpf nao remeter a nenhum cliente sera lancada uma excecao:
+	 * "Erro ao exibir conta do cliente: cliente nao existe." Caso o destino seja
+	 * nulo, o inicio seja negativo ou o tamanho da pagina nao seja positivo sera
+	 * lancada uma excecao: "Erro ao exibir conta do cliente: pagina invalida."
+	 * 
+	 * @param cpf           e o cpf que identifica o cliente.
+	 * @param fornecedor    e o nome que identifica o fornecedor.
+	 * @param destino       e onde as compras serao escritas.
+	 * @param inicio        e a posicao da primeira compra da pagina.
+	 * @param tamanhoPagina e a quantidade maxima de compras da pagina.
+	 * @return e retornado a posicao da proxima compra ou -1.
+	 */
+	public int exibeContas(String cpf, String fornecedor, StringBuilder destino, int inicio, int tamanhoPagina) {
+		if (cpf == null || cpf.equals(""))
+			throw new IllegalArgumentException("Erro ao exibir conta do cliente: cpf nao pode ser vazio ou nulo.");
+		if (cpf.length() != 11)
+			throw new IllegalArgumentException("Erro ao exibir conta do cliente: cpf invalido.");
+		if (!this.controladorCliente.existeCliente(cpf))
+			throw new IllegalArgumentException("Erro ao exibir conta do cliente: cliente nao existe.");
+		if (destino == null || inicio < 0 || tamanhoPagina <= 0)
+			throw new IllegalArgumentException("Erro ao exibir conta do cliente: pagina invalida.");
+
+		return controladorFornecedor.exibeContas(cpf, fornecedor, destino, inicio, tamanhoPagina);
+	}
+
 	/**
 	 * Exibe todas as compras que um cliente possui em todos os fornecedores.
 	 * 
@@ -381,6 +790,41 @@ public class Sistema {
 			throw new IllegalArgumentException("Erro no pagamento de conta: cliente nao existe.");
 
 		controladorFornecedor.realizaPagamento(cpf, fornecedor);
+		registra("realizaPagamento", cpf, fornecedor);
+	}
+
+	/**
+	 * Efetua o pagamento de parte do debito de um cliente em um dado fornecedor. O
+	 * valor quita as compras do cliente da mais antiga para a mais recente; uma
+	 * compra que o valor nao cobre por inteiro fica parcialmente paga ate o
+	 * proximo pagamento.
+	 * 
+	 * Caso o cpf seja nulo ou vazio sera lancada uma excecao: "Erro no pagamento de
+	 * conta: cpf nao pode ser vazio ou nulo." Caso o cpf nao possua 11 caracteres
+	 * sera lancada uma excecao: "Erro no pagamento de conta: cpf invalido." Caso o
+	 * cpf nao remeter a nenhum cliente sera lancada uma excecao: "Erro no pagamento
+	 * de conta: cliente nao existe." Caso o valor nao seja positivo sera lancada
+	 * uma excecao: "Erro no pagamento de conta: valor invalido." Caso o valor seja
+	 * maior que o debito sera lancada uma excecao: "Erro no pagamento de conta:
+	 * valor maior que o debito."
+	 * 
+	 * @param cpf        e o cpf que identifica o cliente.
+	 * @param fornecedor e o nome que identifica o fornecedor.
+	 * @param valor      e o valor pago.
+	 */
+	public void realizaPagamento(String cpf, String fornecedor, double valor) {
+		if (cpf == null || cpf.equals(""))
+			throw new IllegalArgumentException("Erro no pagamento de conta: cpf nao pode ser vazio ou nulo.");
+		if (cpf.length() != 11)
+			throw new IllegalArgumentException("Erro no pagamento de conta: cpf invalido.");
+		if (!this.controladorCliente.existeCliente(cpf))
+			throw new IllegalArgumentException("Erro no pagamento de conta: cliente nao existe.");
+		long centavos = Dinheiro.paraCentavos(valor);
+		if (centavos <= 0)
+			throw new IllegalArgumentException("Erro no pagamento de conta: valor invalido.");
+
+		controladorFornecedor.realizaPagamento(cpf, fornecedor, centavos);
+		registra("realizaPagamentoParcial", cpf, fornecedor, String.valueOf(valor));
 	}
 
 	/**
@@ -396,6 +840,7 @@ public class Sistema {
 			throw new IllegalArgumentException("Erro na listagem de compras: criterio nao pode ser vazio ou nulo.");
 
 		controladorFornecedor.ordenaPor(criterio);
+		registra("ordenaPor", criterio);
 	}
 
 	/**
@@ -407,4 +852,76 @@ public class Sistema {
 	public String listarCompras() {
 		return controladorFornecedor.listarCompras();
 	}
+
+	/**
+	 * Recupera a representacao String das primeiras compras, a ordenacao e
+	 * baseada no criterio definido pelo usuario.
+	 * {@link saga.ControllerFornecedor#listarCompras(int)}
+	 * 
+	 * @param quantidade e a quantidade maxima de compras.
+	 * @return e retornado as primeiras compras no formato String.
+	 */
+	public String listarCompras(int quantidade) {
+		return controladorFornecedor.listarCompras(quantidade);
+	}
+
+	/**
+	 * Recupera a representacao String de uma pagina das compras em aberto que
+	 * atendem aos filtros, na ordenacao definida pelo usuario. Filtros vazios ou
+	 * nulos nao sao aplicados. As datas delimitam um intervalo fechado.
+	 * 
+	 * Caso o cpf nao possua 11 caracteres sera lancada uma excecao: "Erro na
+	 * listagem de compras: cpf invalido." Caso o cpf nao remeter a nenhum cliente
+	 * sera lancada uma excecao: "Erro na listagem de compras: cliente nao existe."
+	 * Caso alguma data seja invalida sera lancada uma excecao: "Erro na listagem
+	 * de compras: data invalida." Caso o limite nao esteja entre 1 e
+	 * {@value #LIMITE_MAXIMO} ou o deslocamento nao esteja entre 0 e
+	 * {@value #DESLOCAMENTO_MAXIMO} sera lancada uma excecao: "Erro na listagem de
+	 * compras: pagina invalida."
+	 * 
+	 * @param cpf          e o cpf do cliente.
+	 * @param fornecedor   e o nome do fornecedor.
+	 * @param dataInicial  e a primeira data aceita, no formato DD/MM/AAAA.
+	 * @param dataFinal    e a ultima data aceita, no formato DD/MM/AAAA.
+	 * @param limite       e a quantidade maxima de compras listadas.
+	 * @param deslocamento e a quantidade de compras iniciais ignoradas.
+	 * @return e retornado a pagina de compras no formato String.
+	 */
+	public String listarCompras(String cpf, String fornecedor, String dataInicial, String dataFinal, int limite,
+			int deslocamento) {
+		if (cpf != null && !cpf.equals("")) {
+			if (cpf.length() != 11)
+				throw new IllegalArgumentException("Erro na listagem de compras: cpf invalido.");
+			if (!this.controladorCliente.existeCliente(cpf))
+				throw new IllegalArgumentException("Erro na listagem de compras: cliente nao existe.");
+		} else {
+			cpf = null;
+		}
+		if (fornecedor != null && fornecedor.equals(""))
+			fornecedor = null;
+		if (limite <= 0 || limite > LIMITE_MAXIMO || deslocamento < 0 || deslocamento > DESLOCAMENTO_MAXIMO)
+			throw new IllegalArgumentException("Erro na listagem de compras: pagina invalida.");
+
+		return controladorFornecedor.listarCompras(cpf, fornecedor, leDataFiltro(dataInicial, Integer.MIN_VALUE),
+				leDataFiltro(dataFinal, Integer.MAX_VALUE), limite, deslocamento);
+	}
+
+	/**
+	 * Le uma data de filtro da listagem de compras, no formato DD/MM/AAAA.
+	 * 
+	 * Caso a data seja invalida sera lancada uma excecao: "Erro na listagem de
+	 * compras: data invalida."
+	 * 
+	 * @param data   e a data do filtro.
+	 * @param padrao e o valor retornado caso a data seja vazia ou nula.
+	 * @return e retornado o dia epoca da data.
+	 */
+	private int leDataFiltro(String data, int padrao) {
+		if (data == null || data.equals(""))
+			return padrao;
+		int diaEpoca = Data.paraDiaEpoca(data);
+		if (diaEpoca == Data.INVALIDA)
+			throw new IllegalArgumentException("Erro na listagem de compras: data invalida.");
+		return diaEpoca;
+	}
 }
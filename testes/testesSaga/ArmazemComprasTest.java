@@ -0,0 +1,97 @@
+package testesSaga;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import saga.ArmazemCompras;
+import saga.Compra;
+import saga.Data;
+import saga.IdProduto;
+import saga.OrdenaCliente;
+import saga.OrdenaData;
+import saga.OrdenaFornecedor;
+
+class ArmazemComprasTest {
+
+	ArmazemCompras armazem;
+
+	@BeforeEach
+	void criaArmazem() {
+		armazem = new ArmazemCompras("Marcos");
+		armazem.adicionaCompra(Data.diaEpoca(2018, 10, 10), new IdProduto("Tapioca", "Tapioca com coco"), "Lucio", 300);
+		armazem.adicionaCompra(Data.diaEpoca(2007, 7, 5), new IdProduto("Cuscuz", "Cuscuz com ovo"), "Amanda", 450);
+		armazem.adicionaCompra(Data.diaEpoca(2018, 10, 11), new IdProduto("Tapioca", "Tapioca com coco"), "Lucio", 300);
+	}
+
+	@Test
+	void testGetCompra() {
+		Compra compra = armazem.getCompra(1);
+		assertEquals(compra.getFornecedor(), "Marcos");
+		assertEquals(compra.getCliente(), "Amanda");
+		assertEquals(compra.getDescricao(), "Cuscuz com ovo");
+		assertEquals(compra.getData(), "05-07-2007");
+		assertEquals(compra.getPreco(), 450);
+		assertEquals(compra.toString(), "Cuscuz - 05-07-2007");
+	}
+
+	@Test
+	void testValoresRepetidosCompartilhados() {
+		assertEquals(armazem.getTamanho(), 3);
+		assertSame(armazem.getCliente(0), armazem.getCliente(2));
+		assertSame(armazem.getProduto(0), armazem.getProduto(2));
+		assertEquals(armazem.somaPrecos(new int[] { 0, 2 }, 2), 600);
+	}
+
+	@Test
+	void testDesempatePorCampos() {
+		armazem.adicionaCompra(Data.diaEpoca(2017, 11, 10), new IdProduto("Tapioca", "Tapioca com coco"), "Lucio", 300);
+		Compra primeira = armazem.getCompra(0);
+		Compra terceira = armazem.getCompra(2);
+		Compra quarta = armazem.getCompra(3);
+		assertTrue(new OrdenaCliente().compare(primeira, terceira) < 0);
+		assertTrue(new OrdenaFornecedor().compare(terceira, primeira) > 0);
+		assertTrue(new OrdenaCliente().compare(quarta, primeira) > 0);
+		assertTrue(new OrdenaCliente().compare(quarta, terceira) < 0);
+		assertEquals(new OrdenaCliente().compare(primeira, armazem.getCompra(0)), 0);
+		assertTrue(new OrdenaCliente().compare(armazem.getCompra(1), primeira) < 0);
+	}
+
+	@Test
+	void testDesempatePeloTextoConcatenado() {
+		armazem.adicionaCompra(Data.diaEpoca(2018, 10, 10), new IdProduto("Pao", "Pao"), "Lucio", 100);
+		armazem.adicionaCompra(Data.diaEpoca(2018, 10, 10), new IdProduto("Pao", "Pao doce"), "Lucio", 100);
+		armazem.adicionaCompra(Data.diaEpoca(2018, 10, 10), new IdProduto("Zz", "zz"), "Luc", 100);
+		Compra pao = armazem.getCompra(3);
+		Compra paoDoce = armazem.getCompra(4);
+		Compra luc = armazem.getCompra(5);
+		assertTrue(new OrdenaCliente().compare(paoDoce, pao) < 0);
+		assertTrue(new OrdenaFornecedor().compare(paoDoce, pao) < 0);
+		assertTrue(new OrdenaData().compare(paoDoce, pao) > 0);
+		assertTrue(new OrdenaFornecedor().compare(luc, pao) > 0);
+		assertTrue(new OrdenaFornecedor().compare(armazem.getCompra(0), luc) < 0);
+		assertEquals(new OrdenaFornecedor().compare(pao, armazem.getCompra(3)), 0);
+	}
+
+	@Test
+	void testReutilizaLinhaLiberada() {
+		armazem.libera(1);
+		assertEquals(armazem.getQuantidadeLivres(), 1);
+		assertEquals(armazem.adicionaCompra(Data.diaEpoca(2018, 1, 1), new IdProduto("Bolo", "Bolo de milho"), "Amanda", 200), 1);
+		assertEquals(armazem.getTamanho(), 3);
+		assertEquals(armazem.getQuantidadeLivres(), 0);
+		assertEquals(armazem.getCompra(1).toString(), "Bolo - 01-01-2018");
+		assertEquals(armazem.adicionaCompra(Data.diaEpoca(2018, 1, 2), new IdProduto("Bolo", "Bolo de milho"), "Amanda", 200), 3);
+	}
+
+	@Test
+	void testCrescimento() {
+		for (int i = 0; i < 1000; i++)
+			armazem.adicionaCompra(Data.diaEpoca(2018, 1, 1), new IdProduto("Bolo", "Bolo de milho"), "Cliente " + (i % 10), i);
+		assertEquals(armazem.getTamanho(), 1003);
+		assertEquals(armazem.getPreco(1002), 999);
+		assertEquals(armazem.getCliente(1002), "Cliente 9");
+		assertEquals(armazem.getCompra(1002).getData(), "01-01-2018");
+	}
+}
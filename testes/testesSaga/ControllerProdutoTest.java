@@ -0,0 +1,134 @@
+package testesSaga;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import saga.ControllerProduto;
+import saga.IdProduto;
+import saga.ProdutoCombo;
+
+class ControllerProdutoTest {
+
+	ControllerProduto controlador;
+
+	@BeforeEach
+	void criaControlador() {
+		controlador = new ControllerProduto("Osvaldo");
+		controlador.adicionaProduto("Caderno", "Edicao limitada: De surfista.", 25.5);
+		controlador.adicionaProduto("Caderno", "Edicao especial: De skatista.", 30);
+	}
+
+	@Test
+	void testExisteProduto() {
+		assertTrue(controlador.existeProduto("Caderno", "Edicao limitada: De surfista."));
+		assertTrue(controlador.existeProduto("Caderno", "Edicao especial: De skatista."));
+		assertFalse(controlador.existeProduto("Caderno", "Edicao comum."));
+		assertFalse(controlador.existeProduto("Lapis", "Edicao limitada: De surfista."));
+	}
+
+	@Test
+	void testGetPrecoProduto() {
+		assertEquals(controlador.getPrecoProduto("Caderno", "Edicao limitada: De surfista."), 2550);
+		assertEquals(controlador.getPrecoProduto("Caderno", "Edicao especial: De skatista."), 3000);
+
+		try {
+			controlador.getPrecoProduto("Caderno", "Edicao comum.");
+			fail("Preco de produto inexistente recuperado.");
+		} catch (IllegalArgumentException iae) {
+			assertEquals(iae.getMessage(), "Erro ao recuperar preco: produto nao existe.");
+		}
+	}
+
+	@Test
+	void testListarProdutos() {
+		controlador.adicionaProduto("Apontador", "Com deposito.", 4);
+		assertEquals(controlador.listarProdutos(),
+				"Osvaldo - Apontador - Com deposito, - R$4,00 | Osvaldo - Caderno - Edicao especial: De skatista, - R$30,00 | "
+						+ "Osvaldo - Caderno - Edicao limitada: De surfista, - R$25,50");
+
+		controlador.editaProduto("Apontador", "Com deposito.", 5);
+		controlador.removeProduto("Caderno", "Edicao especial: De skatista.");
+		assertEquals(controlador.listarProdutos(),
+				"Osvaldo - Apontador - Com deposito, - R$5,00 | Osvaldo - Caderno - Edicao limitada: De surfista, - R$25,50");
+
+		assertEquals(new ControllerProduto("Alice").listarProdutos(), "Alice -");
+	}
+
+	@Test
+	void testComboAcompanhaPrecoDosProdutos() {
+		controlador.adicionaCombo("Kit Caderno", "Dois cadernos", 0.5,
+				"Caderno - Edicao limitada: De surfista., Caderno - Edicao especial: De skatista.");
+		assertEquals(controlador.exibeProduto("Kit Caderno", "Dois cadernos"), "Kit Caderno - Dois cadernos - R$27,75");
+
+		controlador.editaProduto("Caderno", "Edicao especial: De skatista.", 34.5);
+		assertEquals(controlador.exibeProduto("Kit Caderno", "Dois cadernos"), "Kit Caderno - Dois cadernos - R$30,00");
+
+		controlador.removeProduto("Kit Caderno", "Dois cadernos");
+		controlador.editaProduto("Caderno", "Edicao especial: De skatista.", 10);
+		assertFalse(controlador.existeProduto("Kit Caderno", "Dois cadernos"));
+	}
+
+	@Test
+	void testAdicionaComboComComponentes() {
+		ArrayList<IdProduto> componentes = new ArrayList<>();
+		componentes.add(controlador.recuperaIdProduto("Caderno", "Edicao limitada: De surfista."));
+		componentes.add(controlador.recuperaIdProduto("Caderno", "Edicao especial: De skatista."));
+		ProdutoCombo kit = controlador.adicionaCombo("Kit Caderno", "Dois cadernos", 0.5, componentes);
+		assertEquals(kit.toString(), "Kit Caderno - Dois cadernos - R$27,75");
+		assertSame(controlador.recuperaProduto("Kit Caderno", "Dois cadernos"), kit);
+
+		try {
+			controlador.adicionaCombo("Kit Vazio", "Nenhum caderno", 0.5, new ArrayList<IdProduto>());
+			fail("Combo sem produtos cadastrado.");
+		} catch (IllegalArgumentException iae) {
+			assertEquals(iae.getMessage(), "Erro no cadastro de combo: combo deve ter produtos.");
+		}
+
+		ArrayList<IdProduto> externos = new ArrayList<>();
+		externos.add(
+				new ControllerProduto("Alice").adicionaProduto("Caderno", "Edicao limitada: De surfista.", 1).getId());
+		try {
+			controlador.adicionaCombo("Kit Alice", "Caderno de outro fornecedor", 0.5, externos);
+			fail("Combo com produto de outro catalogo cadastrado.");
+		} catch (IllegalArgumentException iae) {
+			assertEquals(iae.getMessage(), "Erro no cadastro de combo: produto nao existe.");
+		}
+
+		ArrayList<IdProduto> removidos = new ArrayList<>();
+		removidos.add(componentes.get(0));
+		controlador.removeProduto("Caderno", "Edicao limitada: De surfista.");
+		controlador.adicionaProduto("Caderno", "Edicao limitada: De surfista.", 20);
+		try {
+			controlador.adicionaCombo("Kit Removido", "Caderno removido", 0.5, removidos);
+			fail("Combo com produto removido cadastrado.");
+		} catch (IllegalArgumentException iae) {
+			assertEquals(iae.getMessage(), "Erro no cadastro de combo: produto nao existe.");
+		}
+
+		ArrayList<IdProduto> combos = new ArrayList<>();
+		combos.add(kit.getId());
+		try {
+			controlador.adicionaCombo("Kit de Kits", "Um kit", 0.5, combos);
+			fail("Combo de combos cadastrado.");
+		} catch (IllegalArgumentException iae) {
+			assertEquals(iae.getMessage(),
+					"Erro no cadastro de combo: um combo nao pode possuir combos na lista de produtos.");
+		}
+	}
+
+	@Test
+	void testCatalogoGrande() {
+		for (int i = 0; i < 50000; i++)
+			controlador.adicionaProduto("Produto " + i, "Descricao " + i, i + 1);
+
+		for (int i = 0; i < 50000; i++) {
+			assertTrue(controlador.existeProduto("Produto " + i, "Descricao " + i));
+			assertEquals(controlador.getPrecoProduto("Produto " + i, "Descricao " + i), (i + 1) * 100);
+		}
+		assertFalse(controlador.existeProduto("Produto 50000", "Descricao 50000"));
+	}
+}
@@ -0,0 +1,42 @@
+package testesSaga;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import saga.Data;
+
+class DataTest {
+
+	@Test
+	void testParaDiaEpoca() {
+		assertEquals(Data.paraDiaEpoca("01/01/1970"), 0);
+		assertEquals(Data.paraDiaEpoca("02/01/1970"), 1);
+		assertEquals(Data.paraDiaEpoca("31/12/1969"), -1);
+		assertEquals(Data.paraDiaEpoca("29/02/2000"), Data.diaEpoca(2000, 2, 29));
+		assertEquals(Data.paraDiaEpoca("4/2/1999"), Data.paraDiaEpoca("04/02/1999"));
+	}
+
+	@Test
+	void testDataInvalida() {
+		assertEquals(Data.paraDiaEpoca("04/103/2018"), Data.INVALIDA);
+		assertEquals(Data.paraDiaEpoca("30/02/2018"), Data.INVALIDA);
+		assertEquals(Data.paraDiaEpoca("29/02/1900"), Data.INVALIDA);
+		assertEquals(Data.paraDiaEpoca("01/01/1900"), Data.INVALIDA);
+		assertEquals(Data.paraDiaEpoca("01/01/9999"), Data.INVALIDA);
+		assertEquals(Data.paraDiaEpoca("01-01-2018"), Data.INVALIDA);
+		assertEquals(Data.paraDiaEpoca("01/01"), Data.INVALIDA);
+		assertEquals(Data.paraDiaEpoca("01/01/2018/"), Data.INVALIDA);
+		assertEquals(Data.paraDiaEpoca("//2018"), Data.INVALIDA);
+	}
+
+	@Test
+	void testFormata() {
+		assertEquals(Data.formata(0), "01-01-1970");
+		assertEquals(Data.formata(Data.paraDiaEpoca("04/02/1999")), "04-02-1999");
+		assertEquals(Data.formata(Data.paraDiaEpoca("29/02/2016")), "29-02-2016");
+		assertEquals(Data.formata(Data.paraDiaEpoca("31/12/1901")), "31-12-1901");
+		for (int dia = Data.diaEpoca(1901, 1, 1); dia < Data.diaEpoca(2020, 1, 1); dia += 37)
+			assertEquals(Data.paraDiaEpoca(Data.formata(dia).replace("-", "/")), dia);
+	}
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import saga.IdProduto;
+import saga.RegistroIdProduto;
 
 class IdProdutoTest {
 
@@ -26,4 +27,19 @@ class IdProdutoTest {
 		assertNotEquals(id2, id3);
 	}
 
+	@Test
+	void testRegistroIdProduto() {
+		RegistroIdProduto registro = new RegistroIdProduto();
+		IdProduto registrado = registro.registraId("Pincel", "Pincel de Quadros");
+
+		assertTrue(registrado == registro.registraId("Pincel", "Pincel de Quadros"));
+		assertTrue(registrado == registro.recuperaId("Pincel", "Pincel de Quadros"));
+		assertEquals(registrado, id);
+		assertEquals(registrado.hashCode(), id.hashCode());
+		assertEquals(registro.recuperaId("Pincel", "Pincel de Paredes"), null);
+
+		registro.removeId("Pincel", "Pincel de Quadros");
+		assertEquals(registro.recuperaId("Pincel", "Pincel de Quadros"), null);
+	}
+
 }
@@ -0,0 +1,49 @@
+package testesSaga;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import saga.ArmazemCompras;
+import saga.Compra;
+import saga.Data;
+import saga.IdProduto;
+import saga.OrdenaData;
+
+class OrdenaDataTest {
+
+	@Test
+	void testCompare() {
+		ArmazemCompras armazem = new ArmazemCompras("Marcos");
+		armazem.adicionaCompra(Data.diaEpoca(2018, 10, 10), new IdProduto("Tapioca", "Tapioca com coco"), "Lucio", 300);
+		armazem.adicionaCompra(Data.diaEpoca(2007, 7, 5), new IdProduto("Cuscuz", "Cuscuz com ovo"), "Lucio", 450);
+		armazem.adicionaCompra(Data.diaEpoca(2018, 10, 10), new IdProduto("Tapioca", "Tapioca com coco"), "Amanda", 300);
+
+		OrdenaData criterio = new OrdenaData();
+		assertTrue(criterio.compare(armazem.getCompra(1), armazem.getCompra(0)) < 0);
+		assertTrue(criterio.compare(armazem.getCompra(2), armazem.getCompra(0)) < 0);
+		assertEquals(criterio.compare(armazem.getCompra(0), armazem.getCompra(0)), 0);
+	}
+
+	@Test
+	void testOrdenaEmBaldes() {
+		ArmazemCompras armazem = new ArmazemCompras("Marcos");
+		ArrayList<Compra> compras = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			int dia = Data.diaEpoca(2018, 1, 1) + (i * 7919) % 365;
+			int linha = armazem.adicionaCompra(dia, new IdProduto("Bolo", "Bolo " + (i % 3)), "Cliente " + (i % 5), i);
+			compras.add(armazem.getCompra(linha));
+		}
+		ArrayList<Compra> esperadas = new ArrayList<>(compras);
+		Collections.sort(esperadas, new OrdenaData());
+
+		ArrayList<Compra> ordenadas = OrdenaData.ordena(compras);
+		assertEquals(ordenadas.size(), esperadas.size());
+		for (int i = 0; i < esperadas.size(); i++)
+			assertEquals(new OrdenaData().compare(ordenadas.get(i), esperadas.get(i)), 0);
+		assertTrue(OrdenaData.ordena(new ArrayList<Compra>()).isEmpty());
+	}
+}
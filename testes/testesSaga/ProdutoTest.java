@@ -2,11 +2,14 @@ package testesSaga;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import saga.IdProduto;
 import saga.Produto;
+import saga.ProdutoCombo;
 
 class ProdutoTest {
 
@@ -28,6 +31,31 @@ class ProdutoTest {
 		assertEquals(pincel.toString(), "Pincel - Pincel de Quadros - R$2,50");
 	}
 
+	@Test
+	void testPrecoEmCentavos() {
+		Produto bala = new Produto("Bala", "Bala de goma", 0.1);
+		assertEquals(bala.getPreco(), 10);
+		bala.setPreco(0.1 + 0.2);
+		assertEquals(bala.getPreco(), 30);
+		assertEquals(bala.toString(), "Bala - Bala de goma - R$0,30");
+	}
+
+	@Test
+	void testRepresentacaoAtualizada() {
+		Produto caneta = new Produto("Caneta", "Caneta azul", 1.5);
+		assertSame(caneta.toString(), caneta.toString());
+		caneta.setPreco(2);
+		assertEquals(caneta.toString(), "Caneta - Caneta azul - R$2,00");
+
+		ArrayList<Produto> componentes = new ArrayList<>();
+		componentes.add(caneta);
+		componentes.add(new Produto("Lapis", "Lapis preto", 1));
+		ProdutoCombo estojo = new ProdutoCombo(new IdProduto("Estojo", "Caneta e lapis"), 0.5, componentes);
+		assertEquals(estojo.toString(), "Estojo - Caneta e lapis - R$1,50");
+		estojo.editaCombo(0.2);
+		assertEquals(estojo.toString(), "Estojo - Caneta e lapis - R$2,40");
+	}
+
 	@Test
 	void testEqualsObject() {
 		assertEquals(pincel, piloto);
@@ -2,9 +2,18 @@ package testesSaga;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import saga.IdProduto;
 import saga.Sistema;
 
 class SistemaTest {
@@ -707,4 +716,678 @@ class SistemaTest {
 		}
 	}
 
+	@Test
+	void testExibeFornecedoresProduto() {
+		Sistema outroSistema = new Sistema();
+		outroSistema.adicionaFornecedor("Marcos", "marcos@xmail.com", "83 99151-3570");
+		outroSistema.adicionaFornecedor("Dona Alba", "alba@xmail.com", "83 98744-7770");
+		outroSistema.adicionaFornecedor("Seu Olavo", "olavo@xmail.com", "83 99348-1092");
+		outroSistema.adicionaProduto("Seu Olavo", "Tapioca", "Tapioca com coco", 3.5);
+		outroSistema.adicionaProduto("Marcos", "Tapioca", "Tapioca com coco", 3);
+		outroSistema.adicionaProduto("Dona Alba", "Cuscuz", "Cuscuz com ovo", 4);
+
+		assertEquals(outroSistema.exibeFornecedoresProduto("Tapioca", "Tapioca com coco"),
+				"Marcos - Tapioca - Tapioca com coco - R$3,00 | Seu Olavo - Tapioca - Tapioca com coco - R$3,50");
+
+		outroSistema.removeFornecedor("Marcos");
+		assertEquals(outroSistema.exibeFornecedoresProduto("Tapioca", "Tapioca com coco"),
+				"Seu Olavo - Tapioca - Tapioca com coco - R$3,50");
+
+		try {
+			outroSistema.exibeFornecedoresProduto("Cuscuz", "Cuscuz com queijo");
+			fail("Produto nao existe.");
+		} catch (IllegalArgumentException iae) {
+			assertEquals(iae.getMessage(), "Erro na exibicao de produto: produto nao existe.");
+		}
+	}
+
+	@Test
+	void testBuscaProdutos() {
+		Sistema outroSistema = new Sistema();
+		outroSistema.adicionaFornecedor("Marcos", "marcos@xmail.com", "83 99151-3570");
+		outroSistema.adicionaFornecedor("Seu Olavo", "olavo@xmail.com", "83 99348-1092");
+		outroSistema.adicionaProduto("Marcos", "Tapioca", "Tapioca com coco", 3);
+		outroSistema.adicionaProduto("Marcos", "Cuscuz", "Cuscuz com coco e queijo", 4);
+		outroSistema.adicionaProduto("Seu Olavo", "Tapioca", "Tapioca com queijo", 3.5);
+
+		assertEquals(outroSistema.buscaProdutos("tapi QUEIJO"),
+				"Seu Olavo - Tapioca - Tapioca com queijo - R$3,50 | Marcos - Cuscuz - Cuscuz com coco e queijo - R$4,00 | "
+						+ "Marcos - Tapioca - Tapioca com coco - R$3,00");
+
+		outroSistema.removeProduto("Tapioca", "Tapioca com queijo", "Seu Olavo");
+		outroSistema.adicionaCombo("Marcos", "Tapioca e Cuscuz", "Dupla nordestina", 0.5,
+				"Tapioca - Tapioca com coco, Cuscuz - Cuscuz com coco e queijo");
+		assertEquals(outroSistema.buscaProdutos("dupla"), "Marcos - Tapioca e Cuscuz - Dupla nordestina - R$3,50");
+		assertEquals(outroSistema.buscaProdutos("pamonha"), "");
+
+		try {
+			outroSistema.buscaProdutos(" ");
+			fail("Consulta vazia aceita.");
+		} catch (IllegalArgumentException iae) {
+			assertEquals(iae.getMessage(), "Erro na busca de produtos: consulta nao pode ser vazia ou nula.");
+		}
+	}
+
+	@Test
+	void testImportaProdutos() throws IOException {
+		Sistema outroSistema = new Sistema();
+		outroSistema.adicionaFornecedor("Marcos", "marcos@xmail.com", "83 99151-3570");
+		Path arquivo = Files.createTempFile("produtos", ".txt");
+		Files.write(arquivo, Arrays.asList("# catalogo do Marcos", "produto;Tapioca;Tapioca com coco;3.00",
+				"produto;Cuscuz;Cuscuz com ovo;4.50", "", "produto;Tapioca;Tapioca com coco;3.00",
+				"produto;Pamonha;Pamonha doce;abc", "combo;Cafe da manha;Tapioca e cuscuz;0.5;Tapioca - Tapioca com coco, Cuscuz - Cuscuz com ovo",
+				"bolo;Bolo;Bolo de milho", "bolo;Bolo;Bolo de milho;abc"));
+
+		assertEquals(outroSistema.importaProdutos("Marcos", arquivo.toString()),
+				"3 produtos importados | Linha 5: Erro no cadastro de produto: produto ja existe. | "
+						+ "Linha 6: Erro na importacao de produtos: valor invalido. | "
+						+ "Linha 8: Erro na importacao de produtos: linha invalida. | "
+						+ "Linha 9: Erro na importacao de produtos: linha invalida.");
+		assertEquals(outroSistema.exibeProdutosFornecedor("Marcos"),
+				"Marcos - Cafe da manha - Tapioca e cuscuz - R$3,75 | Marcos - Cuscuz - Cuscuz com ovo - R$4,50 | "
+						+ "Marcos - Tapioca - Tapioca com coco - R$3,00");
+		assertEquals(outroSistema.buscaProdutos("cafe"), "Marcos - Cafe da manha - Tapioca e cuscuz - R$3,75");
+		Files.delete(arquivo);
+
+		try {
+			outroSistema.importaProdutos("Marcos", arquivo.toString());
+			fail("Arquivo inexistente foi importado.");
+		} catch (IllegalArgumentException iae) {
+			assertEquals(iae.getMessage(), "Erro na importacao de produtos: arquivo nao pode ser lido.");
+		}
+	}
+
+	@Test
+	void testRecuperaSistemaDoRegistro() throws IOException {
+		Path arquivo = Files.createTempFile("saga", ".log");
+		Path importacao = Files.createTempFile("produtos", ".txt");
+		Files.delete(arquivo);
+		Files.write(importacao, Arrays.asList("produto;Cuscuz;Cuscuz com ovo;4.50"));
+
+		Sistema persistido = new Sistema(arquivo.toString());
+		persistido.adicionaCliente("58217738123", "Lucio", "lucio@ccc.ufcg.edu.br", "SPG");
+		persistido.adicionaCliente("11111111111", "Amanda", "amanda@ccc.ufcg.edu.br", "LCC3");
+		persistido.adicionaFornecedor("Marcos", "marcos@xmail.com", "83 99151-3570");
+		persistido.adicionaProduto("Marcos", "Tapioca", "Tapioca com coco\tquente", 3);
+		persistido.importaProdutos("Marcos", importacao.toString());
+		persistido.adicionaCombo("Marcos", "Cafe da manha", "Tapioca e cuscuz", 0.5,
+				"Tapioca - Tapioca com coco\tquente, Cuscuz - Cuscuz com ovo");
+		persistido.editaProduto("Cuscuz", "Cuscuz com ovo", "Marcos", 5);
+		persistido.adicionaCompra("58217738123", "Marcos", "10/10/2018", "Tapioca", "Tapioca com coco\tquente");
+		persistido.adicionaCompra("11111111111", "Marcos", "11/10/2018", "Cuscuz", "Cuscuz com ovo");
+		persistido.realizaPagamento("11111111111", "Marcos");
+		persistido.editaCliente("58217738123", "email", "lucio@xmail.com");
+		try {
+			persistido.adicionaProduto("Marcos", "Tapioca", "Tapioca com coco\tquente", 3);
+			fail("Produto repetido cadastrado.");
+		} catch (IllegalArgumentException iae) {
+		}
+		persistido.ordenaPor("Data");
+		persistido.fecha();
+		Files.delete(importacao);
+		Files.write(arquivo, Arrays.asList("99\tremoveCliente\t5821"), StandardOpenOption.APPEND);
+
+		Sistema recuperado = new Sistema(arquivo.toString());
+		assertEquals(recuperado.exibeClientes(), persistido.exibeClientes());
+		assertEquals(recuperado.exibeProdutos(), persistido.exibeProdutos());
+		assertEquals(recuperado.getDebito("58217738123", "Marcos"), "3.00");
+		assertEquals(recuperado.getDebitoFornecedor("Marcos"), "3.00");
+		assertEquals(recuperado.listarCompras(), persistido.listarCompras());
+		recuperado.fecha();
+		Files.delete(arquivo);
+	}
+
+	@Test
+	void testRecuperaSistemaComOperacaoInterrompida() throws IOException {
+		Path arquivo = Files.createTempFile("saga", ".log");
+		Files.delete(arquivo);
+
+		Sistema persistido = new Sistema(arquivo.toString());
+		persistido.adicionaCliente("58217738123", "Lucio", "lucio@ccc.ufcg.edu.br", "SPG");
+		persistido.fecha();
+		Files.write(arquivo, "2\tadicionaCli".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+		Sistema reaberto = new Sistema(arquivo.toString());
+		assertEquals(reaberto.exibeClientes(), persistido.exibeClientes());
+		reaberto.adicionaCliente("11111111111", "Amanda", "amanda@ccc.ufcg.edu.br", "LCC3");
+		reaberto.fecha();
+
+		Sistema recuperado = new Sistema(arquivo.toString());
+		assertEquals(recuperado.exibeClientes(), reaberto.exibeClientes());
+		recuperado.adicionaCliente("22222222222", "Marta", "marta@ccc.ufcg.edu.br", "SPLab");
+		recuperado.fecha();
+		assertEquals(Files.readAllLines(arquivo, StandardCharsets.UTF_8).size(), 3);
+		assertTrue(Files.readAllLines(arquivo, StandardCharsets.UTF_8).get(1).startsWith("2\tadicionaCliente\t11111111111\t"));
+		Files.delete(arquivo);
+	}
+
+	@Test
+	void testRecuperaSistemaDaImagem() throws IOException {
+		Path arquivo = Files.createTempFile("saga", ".log");
+		Path imagem = Path.of(arquivo.toString() + ".img");
+		Files.delete(arquivo);
+
+		Sistema persistido = new Sistema(arquivo.toString());
+		persistido.adicionaCliente("58217738123", "Lucio", "lucio@ccc.ufcg.edu.br", "SPG");
+		persistido.adicionaFornecedor("Marcos", "marcos@xmail.com", "83 99151-3570");
+		persistido.adicionaFornecedor("Seu Olavo", "olavo@xmail.com", "83 99348-1092");
+		persistido.adicionaProduto("Marcos", "Tapioca", "Tapioca com coco", 3);
+		persistido.adicionaProduto("Marcos", "Cuscuz", "Cuscuz com ovo", 4.5);
+		persistido.adicionaCombo("Marcos", "Cafe da manha", "Tapioca e cuscuz", 0.5,
+				"Tapioca - Tapioca com coco, Cuscuz - Cuscuz com ovo");
+		persistido.adicionaCompra("58217738123", "Marcos", "09/10/2018", "Cuscuz", "Cuscuz com ovo");
+		persistido.realizaPagamento("58217738123", "Marcos");
+		for (int i = 0; i < 100; i++)
+			persistido.adicionaCompra("58217738123", "Marcos", "10/10/2018", "Tapioca", "Tapioca com coco");
+		persistido.ordenaPor("Cliente");
+		persistido.salvaImagem();
+
+		persistido.adicionaCliente("11111111111", "Amanda", "amanda@ccc.ufcg.edu.br", "LCC3");
+		persistido.adicionaProduto("Seu Olavo", "Tapioca", "Tapioca com queijo", 3.5);
+		persistido.adicionaCompra("11111111111", "Marcos", "11/10/2018", "Cafe da manha", "Tapioca e cuscuz");
+		persistido.editaProduto("Tapioca", "Tapioca com coco", "Marcos", 2);
+		persistido.fecha();
+		assertTrue(Files.exists(imagem));
+
+		Sistema recuperado = new Sistema(arquivo.toString());
+		assertEquals(recuperado.exibeClientes(), persistido.exibeClientes());
+		assertEquals(recuperado.exibeProdutos(), persistido.exibeProdutos());
+		assertEquals(recuperado.buscaProdutos("tapioca"), persistido.buscaProdutos("tapioca"));
+		assertEquals(recuperado.getDebito("58217738123", "Marcos"), "300.00");
+		assertEquals(recuperado.getDebito("11111111111", "Marcos"), "7.50");
+		assertEquals(recuperado.getDebitoFornecedor("Marcos"), "307.50");
+		assertEquals(recuperado.listarCompras(), persistido.listarCompras());
+		assertEquals(recuperado.exibeHistorico("58217738123", "Marcos"),
+				"Cliente: Lucio | Marcos | Cuscuz - 09-10-2018");
+		recuperado.fecha();
+
+		byte[] dados = Files.readAllBytes(imagem);
+		byte[] outraVersao = Arrays.copyOf(dados, dados.length);
+		outraVersao[7]++;
+		Files.write(imagem, outraVersao);
+		Sistema semImagem = new Sistema(arquivo.toString());
+		assertEquals(semImagem.exibeClientes(), persistido.exibeClientes());
+		assertEquals(semImagem.getDebitoFornecedor("Marcos"), "307.50");
+		assertEquals(semImagem.listarCompras(), persistido.listarCompras());
+		semImagem.fecha();
+
+		Files.write(imagem, Arrays.copyOf(dados, 60));
+		Sistema imagemInterrompida = new Sistema(arquivo.toString());
+		assertEquals(imagemInterrompida.exibeProdutos(), persistido.exibeProdutos());
+		assertEquals(imagemInterrompida.exibeHistorico("58217738123", "Marcos"),
+				"Cliente: Lucio | Marcos | Cuscuz - 09-10-2018");
+		imagemInterrompida.fecha();
+		Files.delete(imagem);
+		Files.delete(arquivo);
+	}
+
+	@Test
+	void testAdicionaComboComIdsRegistrado() throws IOException {
+		Path arquivo = Files.createTempFile("saga", ".log");
+		Files.delete(arquivo);
+
+		Sistema persistido = new Sistema(arquivo.toString());
+		persistido.adicionaFornecedor("Marcos", "marcos@xmail.com", "83 99151-3570");
+		persistido.adicionaProduto("Marcos", "Tapioca, grande", "Tapioca - com coco", 3);
+		persistido.adicionaProduto("Marcos", "Cuscuz", "Cuscuz com ovo", 4.5);
+		ArrayList<IdProduto> componentes = new ArrayList<>();
+		componentes.add(persistido.recuperaIdProduto("Marcos", "Tapioca, grande", "Tapioca - com coco"));
+		componentes.add(persistido.recuperaIdProduto("Marcos", "Cuscuz", "Cuscuz com ovo"));
+		persistido.adicionaCombo("Marcos", "Cafe da manha", "Tapioca e cuscuz", 0.5, componentes);
+		assertEquals(persistido.exibeProduto("Cafe da manha", "Tapioca e cuscuz", "Marcos"),
+				"Cafe da manha - Tapioca e cuscuz - R$3,75");
+		try {
+			persistido.recuperaIdProduto("Marcos", "Cuscuz", "Cuscuz com queijo");
+			fail("Id de produto inexistente recuperado.");
+		} catch (IllegalArgumentException iae) {
+			assertEquals(iae.getMessage(), "Erro na recuperacao de produto: produto nao existe.");
+		}
+		persistido.fecha();
+
+		Sistema recuperado = new Sistema(arquivo.toString());
+		assertEquals(recuperado.exibeProdutos(), persistido.exibeProdutos());
+		recuperado.editaProduto("Cuscuz", "Cuscuz com ovo", "Marcos", 6.5);
+		assertEquals(recuperado.exibeProduto("Cafe da manha", "Tapioca e cuscuz", "Marcos"),
+				"Cafe da manha - Tapioca e cuscuz - R$4,75");
+		recuperado.fecha();
+		Files.delete(arquivo);
+	}
+
+	@Test
+	void testImagemComComponenteDeComboRemovido() throws IOException {
+		Path arquivo = Files.createTempFile("saga", ".log");
+		Path imagem = Path.of(arquivo.toString() + ".img");
+		Files.delete(arquivo);
+
+		Sistema persistido = new Sistema(arquivo.toString());
+		persistido.adicionaFornecedor("Marcos", "marcos@xmail.com", "83 99151-3570");
+		persistido.adicionaProduto("Marcos", "A", "Produto a", 10);
+		persistido.adicionaProduto("Marcos", "B", "Produto b", 20);
+		persistido.adicionaProduto("Marcos", "D", "Produto d", 30);
+		persistido.adicionaCombo("Marcos", "C", "Combo c", 0.5, "A - Produto a, B - Produto b");
+		persistido.adicionaCombo("Marcos", "E", "Combo e", 0.5, "B - Produto b, D - Produto d");
+		persistido.removeProduto("A", "Produto a", "Marcos");
+		persistido.adicionaProduto("Marcos", "A", "Produto a", 100);
+		persistido.removeProduto("D", "Produto d", "Marcos");
+		assertEquals(persistido.exibeProduto("C", "Combo c", "Marcos"), "C - Combo c - R$15,00");
+		assertEquals(persistido.exibeProduto("E", "Combo e", "Marcos"), "E - Combo e - R$25,00");
+		persistido.salvaImagem();
+		persistido.fecha();
+
+		Path semImagem = Path.of(arquivo.toString() + ".sem-imagem");
+		Files.copy(arquivo, semImagem);
+		Sistema reaplicado = new Sistema(semImagem.toString());
+		assertEquals(reaplicado.exibeProdutos(), persistido.exibeProdutos());
+		reaplicado.fecha();
+		Files.delete(semImagem);
+
+		Files.delete(arquivo);
+		Sistema recuperado = new Sistema(arquivo.toString());
+		assertEquals(recuperado.exibeProdutos(), persistido.exibeProdutos());
+		assertEquals(recuperado.exibeProduto("C", "Combo c", "Marcos"), "C - Combo c - R$15,00");
+		assertEquals(recuperado.exibeProduto("E", "Combo e", "Marcos"), "E - Combo e - R$25,00");
+		recuperado.editaProduto("A", "Produto a", "Marcos", 50);
+		recuperado.editaProduto("B", "Produto b", "Marcos", 40);
+		assertEquals(recuperado.exibeProduto("C", "Combo c", "Marcos"), "C - Combo c - R$25,00");
+		assertEquals(recuperado.exibeProduto("E", "Combo e", "Marcos"), "E - Combo e - R$35,00");
+		recuperado.fecha();
+		Files.delete(imagem);
+		Files.delete(arquivo);
+	}
+
+	@Test
+	void testGetDebitoFornecedor() {
+		Sistema outroSistema = new Sistema();
+		outroSistema.adicionaCliente("58217738123", "Lucio", "lucio@ccc.ufcg.edu.br", "SPG");
+		outroSistema.adicionaCliente("11111111111", "Amanda", "amanda@ccc.ufcg.edu.br", "LCC3");
+		outroSistema.adicionaFornecedor("Marcos", "marcos@xmail.com", "83 99151-3570");
+		outroSistema.adicionaProduto("Marcos", "Tapioca", "Tapioca com coco", 0.1);
+		outroSistema.adicionaProduto("Marcos", "Cuscuz", "Cuscuz com ovo", 0.2);
+		assertEquals(outroSistema.getDebitoFornecedor("Marcos"), "0.00");
+
+		outroSistema.adicionaCompra("58217738123", "Marcos", "10/10/2018", "Tapioca", "Tapioca com coco");
+		outroSistema.adicionaCompra("58217738123", "Marcos", "11/10/2018", "Cuscuz", "Cuscuz com ovo");
+		outroSistema.adicionaCompra("11111111111", "Marcos", "11/10/2018", "Cuscuz", "Cuscuz com ovo");
+		assertEquals(outroSistema.getDebito("58217738123", "Marcos"), "0.30");
+		assertEquals(outroSistema.getDebitoFornecedor("Marcos"), "0.50");
+
+		outroSistema.realizaPagamento("11111111111", "Marcos", 0.1);
+		try {
+			outroSistema.exibeHistorico("11111111111", "Marcos");
+			fail("Historico de pagamento que nao quitou compras exibido.");
+		} catch (IllegalArgumentException iae) {
+			assertEquals(iae.getMessage(),
+					"Erro ao exibir historico do cliente: cliente nao tem nenhum pagamento com o fornecedor.");
+		}
+		outroSistema.realizaPagamento("58217738123", "Marcos");
+		assertEquals(outroSistema.getDebitoFornecedor("Marcos"), "0.10");
+		assertEquals(outroSistema.exibeHistorico("58217738123", "Marcos"),
+				"Cliente: Lucio | Marcos | Tapioca - 10-10-2018 | Cuscuz - 11-10-2018");
+
+		outroSistema.adicionaCompra("58217738123", "Marcos", "12/10/2018", "Cuscuz", "Cuscuz com ovo");
+		outroSistema.realizaPagamento("58217738123", "Marcos");
+		assertEquals(outroSistema.exibeHistorico("58217738123", "Marcos"),
+				"Cliente: Lucio | Marcos | Tapioca - 10-10-2018 | Cuscuz - 11-10-2018 | Cuscuz - 12-10-2018");
+		try {
+			outroSistema.exibeHistorico("11111111111", "Marcos");
+			fail("Historico de cliente sem pagamento exibido.");
+		} catch (IllegalArgumentException iae) {
+			assertEquals(iae.getMessage(),
+					"Erro ao exibir historico do cliente: cliente nao tem nenhum pagamento com o fornecedor.");
+		}
+
+		try {
+			outroSistema.getDebitoFornecedor("Seu Olavo");
+			fail("Debito de fornecedor inexistente recuperado.");
+		} catch (IllegalArgumentException iae) {
+			assertEquals(iae.getMessage(), "Erro ao recuperar debito: fornecedor nao existe.");
+		}
+	}
+
+	@Test
+	void testPagamentoParcial() {
+		Sistema outroSistema = new Sistema();
+		outroSistema.adicionaCliente("58217738123", "Lucio", "lucio@ccc.ufcg.edu.br", "SPG");
+		outroSistema.adicionaFornecedor("Marcos", "marcos@xmail.com", "83 99151-3570");
+		outroSistema.adicionaProduto("Marcos", "Tapioca", "Tapioca com coco", 3);
+		outroSistema.adicionaProduto("Marcos", "Cuscuz", "Cuscuz com ovo", 4.5);
+		outroSistema.adicionaCompra("58217738123", "Marcos", "10/10/2018", "Tapioca", "Tapioca com coco");
+		outroSistema.adicionaCompra("58217738123", "Marcos", "11/10/2018", "Cuscuz", "Cuscuz com ovo");
+		outroSistema.adicionaCompra("58217738123", "Marcos", "12/10/2018", "Tapioca", "Tapioca com coco");
+
+		outroSistema.ordenaPor("Data");
+		outroSistema.realizaPagamento("58217738123", "Marcos", 2);
+		assertEquals(outroSistema.getDebito("58217738123", "Marcos"), "8.50");
+		assertEquals(outroSistema.exibeContas("58217738123", "Marcos"),
+				"Cliente: Lucio | Marcos | Tapioca - 10-10-2018 | Cuscuz - 11-10-2018 | Tapioca - 12-10-2018");
+
+		outroSistema.realizaPagamento("58217738123", "Marcos", 4);
+		assertEquals(outroSistema.getDebito("58217738123", "Marcos"), "4.50");
+		assertEquals(outroSistema.getDebitoFornecedor("Marcos"), "4.50");
+		assertEquals(outroSistema.exibeContas("58217738123", "Marcos"),
+				"Cliente: Lucio | Marcos | Cuscuz - 11-10-2018 | Tapioca - 12-10-2018");
+		assertEquals(outroSistema.exibeHistorico("58217738123", "Marcos"),
+				"Cliente: Lucio | Marcos | Tapioca - 10-10-2018");
+		assertEquals(outroSistema.listarCompras(),
+				"11/10/2018, Lucio, Marcos, Cuscuz com ovo | 12/10/2018, Lucio, Marcos, Tapioca com coco");
+
+		try {
+			outroSistema.realizaPagamento("58217738123", "Marcos", 5);
+			fail("Pagamento maior que o debito realizado.");
+		} catch (IllegalArgumentException iae) {
+			assertEquals(iae.getMessage(), "Erro no pagamento de conta: valor maior que o debito.");
+		}
+		try {
+			outroSistema.realizaPagamento("58217738123", "Marcos", 0);
+			fail("Pagamento sem valor realizado.");
+		} catch (IllegalArgumentException iae) {
+			assertEquals(iae.getMessage(), "Erro no pagamento de conta: valor invalido.");
+		}
+
+		outroSistema.realizaPagamento("58217738123", "Marcos", 4.5);
+		assertEquals(outroSistema.getDebitoFornecedor("Marcos"), "0.00");
+		assertEquals(outroSistema.listarCompras(), "");
+		assertEquals(outroSistema.exibeHistorico("58217738123", "Marcos"),
+				"Cliente: Lucio | Marcos | Tapioca - 10-10-2018 | Cuscuz - 11-10-2018 | Tapioca - 12-10-2018");
+		try {
+			outroSistema.exibeContas("58217738123", "Marcos");
+			fail("Conta paga exibida.");
+		} catch (IllegalArgumentException iae) {
+			assertEquals(iae.getMessage(),
+					"Erro ao exibir conta do cliente: cliente nao tem nenhuma conta com o fornecedor.");
+		}
+	}
+
+	@Test
+	void testListarPrimeirasCompras() {
+		Sistema outroSistema = new Sistema();
+		outroSistema.adicionaCliente("58217738123", "Lucio", "lucio@ccc.ufcg.edu.br", "SPG");
+		outroSistema.adicionaCliente("11111111111", "Amanda", "amanda@ccc.ufcg.edu.br", "LCC3");
+		outroSistema.adicionaFornecedor("Marcos", "marcos@xmail.com", "83 99151-3570");
+		outroSistema.adicionaFornecedor("Seu Olavo", "olavo@xmail.com", "83 99348-1092");
+		outroSistema.adicionaProduto("Marcos", "Tapioca", "Tapioca com coco", 3);
+		outroSistema.adicionaProduto("Seu Olavo", "Suco", "Suco de laranja", 2);
+		outroSistema.adicionaCompra("58217738123", "Marcos", "10/10/2018", "Tapioca", "Tapioca com coco");
+		outroSistema.adicionaCompra("11111111111", "Seu Olavo", "09/10/2018", "Suco", "Suco de laranja");
+		outroSistema.adicionaCompra("11111111111", "Marcos", "12/10/2018", "Tapioca", "Tapioca com coco");
+		outroSistema.adicionaCompra("58217738123", "Seu Olavo", "11/10/2018", "Suco", "Suco de laranja");
+
+		try {
+			outroSistema.listarCompras(2);
+			fail("Compras listadas sem criterio.");
+		} catch (IllegalArgumentException iae) {
+			assertEquals(iae.getMessage(), "Erro na listagem de compras: criterio ainda nao definido pelo sistema.");
+		}
+		outroSistema.ordenaPor("Data");
+		assertEquals(outroSistema.listarCompras(3),
+				"09/10/2018, Amanda, Seu Olavo, Suco de laranja | 10/10/2018, Lucio, Marcos, Tapioca com coco"
+						+ " | 11/10/2018, Lucio, Seu Olavo, Suco de laranja");
+		assertEquals(outroSistema.listarCompras(10), outroSistema.listarCompras());
+
+		outroSistema.adicionaCompra("58217738123", "Marcos", "01/10/2018", "Tapioca", "Tapioca com coco");
+		outroSistema.realizaPagamento("11111111111", "Seu Olavo");
+		assertEquals(outroSistema.listarCompras(2),
+				"01/10/2018, Lucio, Marcos, Tapioca com coco | 10/10/2018, Lucio, Marcos, Tapioca com coco");
+		outroSistema.realizaPagamento("58217738123", "Marcos", 3);
+		assertEquals(outroSistema.listarCompras(2),
+				"01/10/2018, Lucio, Marcos, Tapioca com coco | 11/10/2018, Lucio, Seu Olavo, Suco de laranja");
+
+		outroSistema.ordenaPor("Cliente");
+		assertEquals(outroSistema.listarCompras(1), "Amanda, Marcos, Tapioca com coco, 12/10/2018");
+		assertEquals(outroSistema.listarCompras(10), outroSistema.listarCompras());
+		try {
+			outroSistema.listarCompras(0);
+			fail("Compras listadas com quantidade invalida.");
+		} catch (IllegalArgumentException iae) {
+			assertEquals(iae.getMessage(), "Erro na listagem de compras: quantidade invalida.");
+		}
+	}
+
+	@Test
+	void testListarComprasFiltradas() {
+		Sistema outroSistema = new Sistema();
+		outroSistema.adicionaCliente("58217738123", "Lucio", "lucio@ccc.ufcg.edu.br", "SPG");
+		outroSistema.adicionaCliente("11111111111", "Amanda", "amanda@ccc.ufcg.edu.br", "LCC3");
+		outroSistema.adicionaFornecedor("Marcos", "marcos@xmail.com", "83 99151-3570");
+		outroSistema.adicionaFornecedor("Seu Olavo", "olavo@xmail.com", "83 99348-1092");
+		outroSistema.adicionaProduto("Marcos", "Tapioca", "Tapioca com coco", 3);
+		outroSistema.adicionaProduto("Seu Olavo", "Suco", "Suco de laranja", 2);
+		for (int dia = 1; dia <= 9; dia++) {
+			outroSistema.adicionaCompra("58217738123", "Marcos", "0" + dia + "/10/2018", "Tapioca", "Tapioca com coco");
+			outroSistema.adicionaCompra("11111111111", "Seu Olavo", "0" + dia + "/11/2018", "Suco", "Suco de laranja");
+		}
+		outroSistema.adicionaCompra("58217738123", "Seu Olavo", "15/10/2018", "Suco", "Suco de laranja");
+		outroSistema.ordenaPor("Data");
+
+		assertEquals(outroSistema.listarCompras("58217738123", "", "05/10/2018", "31/10/2018", 2, 1),
+				"06/10/2018, Lucio, Marcos, Tapioca com coco | 07/10/2018, Lucio, Marcos, Tapioca com coco");
+		assertEquals(outroSistema.listarCompras("58217738123", "Seu Olavo", null, null, 100, 0),
+				"15/10/2018, Lucio, Seu Olavo, Suco de laranja");
+		assertEquals(outroSistema.listarCompras(null, "Seu Olavo", "08/11/2018", null, 100, 0),
+				"08/11/2018, Amanda, Seu Olavo, Suco de laranja | 09/11/2018, Amanda, Seu Olavo, Suco de laranja");
+		assertEquals(outroSistema.listarCompras(null, null, null, null, 100, 0), outroSistema.listarCompras());
+		assertEquals(outroSistema.listarCompras(null, null, null, null, 3, 100), "");
+		assertEquals(outroSistema.listarCompras(null, null, "09/10/2018", "02/11/2018", 2, 1),
+				"15/10/2018, Lucio, Seu Olavo, Suco de laranja | 01/11/2018, Amanda, Seu Olavo, Suco de laranja");
+		outroSistema.ordenaPor("Cliente");
+		assertEquals(outroSistema.listarCompras(null, null, "09/10/2018", null, 2, 0),
+				"Amanda, Seu Olavo, Suco de laranja, 01/11/2018 | Amanda, Seu Olavo, Suco de laranja, 02/11/2018");
+		assertEquals(outroSistema.listarCompras(null, null, "09/10/2018", null, 100, 9),
+				"Lucio, Marcos, Tapioca com coco, 09/10/2018 | Lucio, Seu Olavo, Suco de laranja, 15/10/2018");
+
+		try {
+			outroSistema.listarCompras(null, null, "31/02/2018", null, 10, 0);
+			fail("Compras listadas com data invalida.");
+		} catch (IllegalArgumentException iae) {
+			assertEquals(iae.getMessage(), "Erro na listagem de compras: data invalida.");
+		}
+		try {
+			outroSistema.listarCompras("12345678912", null, null, null, 10, 0);
+			fail("Compras listadas de cliente inexistente.");
+		} catch (IllegalArgumentException iae) {
+			assertEquals(iae.getMessage(), "Erro na listagem de compras: cliente nao existe.");
+		}
+		try {
+			outroSistema.listarCompras(null, "Helhao", null, null, 10, 0);
+			fail("Compras listadas de fornecedor inexistente.");
+		} catch (IllegalArgumentException iae) {
+			assertEquals(iae.getMessage(), "Erro na listagem de compras: fornecedor nao existe.");
+		}
+		try {
+			outroSistema.listarCompras(null, null, null, null, 0, 0);
+			fail("Compras listadas com limite invalido.");
+		} catch (IllegalArgumentException iae) {
+			assertEquals(iae.getMessage(), "Erro na listagem de compras: pagina invalida.");
+		}
+		try {
+			outroSistema.listarCompras(null, null, null, null, Integer.MAX_VALUE, 0);
+			fail("Compras listadas com limite acima do maximo.");
+		} catch (IllegalArgumentException iae) {
+			assertEquals(iae.getMessage(), "Erro na listagem de compras: pagina invalida.");
+		}
+		try {
+			outroSistema.listarCompras(null, null, null, null, 100, Integer.MAX_VALUE);
+			fail("Compras listadas com deslocamento acima do maximo.");
+		} catch (IllegalArgumentException iae) {
+			assertEquals(iae.getMessage(), "Erro na listagem de compras: pagina invalida.");
+		}
+	}
+
+	@Test
+	void testDataSemZerosExibidaComDoisDigitos() {
+		Sistema outroSistema = new Sistema();
+		outroSistema.adicionaCliente("58217738123", "Lucio", "lucio@ccc.ufcg.edu.br", "SPG");
+		outroSistema.adicionaFornecedor("Marcos", "marcos@xmail.com", "83 99151-3570");
+		outroSistema.adicionaProduto("Marcos", "Tapioca", "Tapioca com coco", 3);
+		outroSistema.adicionaCompra("58217738123", "Marcos", "1/2/2019", "Tapioca", "Tapioca com coco");
+		outroSistema.ordenaPor("Data");
+
+		assertEquals(outroSistema.exibeContas("58217738123", "Marcos"),
+				"Cliente: Lucio | Marcos | Tapioca - 01-02-2019");
+		assertEquals(outroSistema.listarCompras(), "01/02/2019, Lucio, Marcos, Tapioca com coco");
+	}
+
+	@Test
+	void testDesempateComNomesPrefixos() {
+		Sistema outroSistema = new Sistema();
+		outroSistema.adicionaCliente("11111111111", "Ana", "ana@ccc.ufcg.edu.br", "SPG");
+		outroSistema.adicionaCliente("22222222222", "Anab", "anab@ccc.ufcg.edu.br", "LCC3");
+		outroSistema.adicionaFornecedor("F", "f@xmail.com", "83 99151-3570");
+		outroSistema.adicionaFornecedor("Mar", "mar@xmail.com", "83 99348-1092");
+		outroSistema.adicionaFornecedor("Marcos", "marcos@xmail.com", "83 99151-3571");
+		outroSistema.adicionaProduto("F", "Zz", "zz", 1);
+		outroSistema.adicionaProduto("F", "Aa", "aa", 1);
+		outroSistema.adicionaProduto("Mar", "Zz", "zz", 1);
+		outroSistema.adicionaProduto("Marcos", "Aa", "aa", 1);
+		outroSistema.adicionaCompra("11111111111", "F", "10/10/2018", "Zz", "zz");
+		outroSistema.adicionaCompra("22222222222", "F", "10/10/2018", "Aa", "aa");
+		outroSistema.adicionaCompra("11111111111", "Mar", "10/10/2018", "Zz", "zz");
+		outroSistema.adicionaCompra("11111111111", "Marcos", "10/10/2018", "Aa", "aa");
+
+		outroSistema.ordenaPor("Fornecedor");
+		assertEquals(outroSistema.listarCompras(),
+				"F, Anab, aa, 10/10/2018 | F, Ana, zz, 10/10/2018 | Mar, Ana, zz, 10/10/2018"
+						+ " | Marcos, Ana, aa, 10/10/2018");
+		assertEquals(outroSistema.listarCompras(null, "F", null, null, 1, 0), "F, Anab, aa, 10/10/2018");
+
+		outroSistema.ordenaPor("Cliente");
+		assertEquals(outroSistema.listarCompras(),
+				"Ana, F, zz, 10/10/2018 | Ana, Marcos, aa, 10/10/2018 | Ana, Mar, zz, 10/10/2018"
+						+ " | Anab, F, aa, 10/10/2018");
+		assertEquals(outroSistema.listarCompras(2), "Ana, F, zz, 10/10/2018 | Ana, Marcos, aa, 10/10/2018");
+
+		outroSistema.ordenaPor("Data");
+		assertEquals(outroSistema.listarCompras(),
+				"10/10/2018, Ana, F, zz | 10/10/2018, Ana, Marcos, aa | 10/10/2018, Ana, Mar, zz"
+						+ " | 10/10/2018, Anab, F, aa");
+	}
+
+	@Test
+	void testExibeContasClientesAcompanhaContas() {
+		Sistema outroSistema = new Sistema();
+		outroSistema.adicionaCliente("58217738123", "Lucio", "lucio@ccc.ufcg.edu.br", "SPG");
+		outroSistema.adicionaCliente("11111111111", "Amanda", "amanda@ccc.ufcg.edu.br", "LCC3");
+		for (String fornecedor : new String[] { "Seu Olavo", "Marcos", "Helhao" }) {
+			outroSistema.adicionaFornecedor(fornecedor, "f@xmail.com", "83 99151-3570");
+			outroSistema.adicionaProduto(fornecedor, "Tapioca", "Tapioca com coco", 1.5);
+		}
+		outroSistema.adicionaCompra("58217738123", "Seu Olavo", "10/10/2018", "Tapioca", "Tapioca com coco");
+		outroSistema.adicionaCompra("58217738123", "Marcos", "11/10/2018", "Tapioca", "Tapioca com coco");
+		outroSistema.adicionaCompra("58217738123", "Marcos", "12/10/2018", "Tapioca", "Tapioca com coco");
+		outroSistema.adicionaCompra("11111111111", "Helhao", "12/10/2018", "Tapioca", "Tapioca com coco");
+		assertEquals(outroSistema.exibeContasClientes("58217738123"), "Cliente: Lucio | Marcos | Tapioca - 11-10-2018"
+				+ " | Tapioca - 12-10-2018 | Seu Olavo | Tapioca - 10-10-2018");
+		assertEquals(outroSistema.exibeContasClientes("11111111111"), "Cliente: Amanda | Helhao | Tapioca - 12-10-2018");
+
+		outroSistema.realizaPagamento("58217738123", "Marcos", 1.5);
+		assertEquals(outroSistema.exibeContasClientes("58217738123"),
+				"Cliente: Lucio | Marcos | Tapioca - 12-10-2018 | Seu Olavo | Tapioca - 10-10-2018");
+		outroSistema.realizaPagamento("58217738123", "Marcos");
+		assertEquals(outroSistema.exibeContasClientes("58217738123"), "Cliente: Lucio | Seu Olavo | Tapioca - 10-10-2018");
+
+		outroSistema.adicionaCompra("58217738123", "Helhao", "13/10/2018", "Tapioca", "Tapioca com coco");
+		assertEquals(outroSistema.exibeContasClientes("58217738123"),
+				"Cliente: Lucio | Helhao | Tapioca - 13-10-2018 | Seu Olavo | Tapioca - 10-10-2018");
+		outroSistema.removeFornecedor("Helhao");
+		assertEquals(outroSistema.exibeContasClientes("58217738123"), "Cliente: Lucio | Seu Olavo | Tapioca - 10-10-2018");
+		try {
+			outroSistema.exibeContasClientes("11111111111");
+			fail("Contas de fornecedor removido exibidas.");
+		} catch (IllegalArgumentException iae) {
+			assertEquals(iae.getMessage(), "Erro ao exibir contas do cliente: cliente nao tem nenhuma conta.");
+		}
+	}
+
+	@Test
+	void testExibeContasEntreMuitosFornecedores() {
+		Sistema outroSistema = new Sistema();
+		outroSistema.adicionaCliente("58217738123", "Lucio", "lucio@ccc.ufcg.edu.br", "SPG");
+		for (int i = 0; i < 200; i++) {
+			outroSistema.adicionaFornecedor("Fornecedor " + i, "f" + i + "@xmail.com", "83 99151-3570");
+			outroSistema.adicionaProduto("Fornecedor " + i, "Tapioca", "Tapioca com coco", 1.5);
+		}
+		outroSistema.adicionaCompra("58217738123", "Fornecedor 150", "10/10/2018", "Tapioca", "Tapioca com coco");
+		outroSistema.adicionaCompra("58217738123", "Fornecedor 7", "11/10/2018", "Tapioca", "Tapioca com coco");
+
+		assertEquals(outroSistema.exibeContas("58217738123", "Fornecedor 150"),
+				"Cliente: Lucio | Fornecedor 150 | Tapioca - 10-10-2018");
+		assertEquals(outroSistema.exibeContasClientes("58217738123"),
+				"Cliente: Lucio | Fornecedor 150 | Tapioca - 10-10-2018 | Fornecedor 7 | Tapioca - 11-10-2018");
+		try {
+			outroSistema.exibeContas("58217738123", "Fornecedor 8");
+			fail("Conta inexistente exibida.");
+		} catch (IllegalArgumentException iae) {
+			assertEquals(iae.getMessage(),
+					"Erro ao exibir conta do cliente: cliente nao tem nenhuma conta com o fornecedor.");
+		}
+
+		outroSistema.realizaPagamento("58217738123", "Fornecedor 150");
+		outroSistema.removeFornecedor("Fornecedor 7");
+		try {
+			outroSistema.exibeContasClientes("58217738123");
+			fail("Contas de cliente sem conta exibidas.");
+		} catch (IllegalArgumentException iae) {
+			assertEquals(iae.getMessage(), "Erro ao exibir contas do cliente: cliente nao tem nenhuma conta.");
+		}
+	}
+
+	@Test
+	void testExibeContasPaginadas() {
+		Sistema outroSistema = new Sistema();
+		outroSistema.adicionaCliente("58217738123", "Lucio", "lucio@ccc.ufcg.edu.br", "SPG");
+		outroSistema.adicionaFornecedor("Marcos", "marcos@xmail.com", "83 99151-3570");
+		outroSistema.adicionaProduto("Marcos", "Tapioca", "Tapioca com coco", 1.5);
+		for (int dia = 1; dia <= 5; dia++)
+			outroSistema.adicionaCompra("58217738123", "Marcos", "0" + dia + "/10/2018", "Tapioca", "Tapioca com coco");
+
+		StringBuilder pagina = new StringBuilder();
+		int proxima = outroSistema.exibeContas("58217738123", "Marcos", pagina, 0, 2);
+		assertEquals(proxima, 2);
+		assertEquals(pagina.toString(), "Tapioca - 01-10-2018 | Tapioca - 02-10-2018");
+
+		pagina.setLength(0);
+		proxima = outroSistema.exibeContas("58217738123", "Marcos", pagina, proxima, 2);
+		assertEquals(proxima, 4);
+		assertEquals(pagina.toString(), "Tapioca - 03-10-2018 | Tapioca - 04-10-2018");
+
+		pagina.setLength(0);
+		proxima = outroSistema.exibeContas("58217738123", "Marcos", pagina, proxima, 2);
+		assertEquals(proxima, -1);
+		assertEquals(pagina.toString(), "Tapioca - 05-10-2018");
+
+		pagina.setLength(0);
+		proxima = outroSistema.exibeContas("58217738123", "Marcos", pagina, 0, 2);
+		outroSistema.realizaPagamento("58217738123", "Marcos", 1.5);
+		pagina.setLength(0);
+		proxima = outroSistema.exibeContas("58217738123", "Marcos", pagina, proxima, 2);
+		assertEquals(proxima, 4);
+		assertEquals(pagina.toString(), "Tapioca - 03-10-2018 | Tapioca - 04-10-2018");
+		outroSistema.realizaPagamento("58217738123", "Marcos", 4.5);
+		pagina.setLength(0);
+		proxima = outroSistema.exibeContas("58217738123", "Marcos", pagina, 0, 2);
+		assertEquals(proxima, -1);
+		assertEquals(pagina.toString(), "Tapioca - 05-10-2018");
+
+		outroSistema.realizaPagamento("58217738123", "Marcos");
+		for (int dia = 1; dia <= 20; dia++)
+			outroSistema.adicionaCompra("58217738123", "Marcos", dia + "/11/2018", "Tapioca", "Tapioca com coco");
+		for (int dia = 1; dia <= 20; dia++)
+			outroSistema.adicionaCompra("58217738123", "Marcos", dia + "/12/2018", "Tapioca", "Tapioca com coco");
+		pagina.setLength(0);
+		proxima = outroSistema.exibeContas("58217738123", "Marcos", pagina, 0, 20);
+		assertEquals(proxima, 20);
+		outroSistema.realizaPagamento("58217738123", "Marcos", 30);
+		pagina.setLength(0);
+		proxima = outroSistema.exibeContas("58217738123", "Marcos", pagina, proxima, 2);
+		assertEquals(proxima, 22);
+		assertEquals(pagina.toString(), "Tapioca - 01-12-2018 | Tapioca - 02-12-2018");
+
+		try {
+			outroSistema.exibeContas("58217738123", "Marcos", pagina, 0, 0);
+			fail("Pagina vazia exibida.");
+		} catch (IllegalArgumentException iae) {
+			assertEquals(iae.getMessage(), "Erro ao exibir conta do cliente: pagina invalida.");
+		}
+	}
+
 }